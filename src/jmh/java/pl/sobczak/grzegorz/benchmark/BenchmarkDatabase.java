@@ -0,0 +1,178 @@
+package pl.sobczak.grzegorz.benchmark;
+
+import pl.sobczak.grzegorz.dao.RepairOrderDao;
+import pl.sobczak.grzegorz.dao.UserDao;
+import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.db.SchemaMigrator;
+import pl.sobczak.grzegorz.db.StorageProfile;
+import pl.sobczak.grzegorz.model.IdGenerator;
+import pl.sobczak.grzegorz.model.Money;
+import pl.sobczak.grzegorz.model.Part;
+import pl.sobczak.grzegorz.model.RepairOrder;
+import pl.sobczak.grzegorz.model.RepairStatus;
+import pl.sobczak.grzegorz.model.User;
+import pl.sobczak.grzegorz.model.Vehicle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class BenchmarkDatabase {
+    static final int SAMPLE_SIZE = 1_024;
+
+    private static final String DATA_DIR_PROPERTY = "bench.dataDir";
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final int PARTS_PER_ORDER = 2;
+    private static final LocalDateTime FIRST_ORDER_AT = LocalDateTime.of(2020, 1, 1, 8, 0);
+
+    private BenchmarkDatabase() {
+    }
+
+    record Sample(List<String> userIds, List<String> emails, List<String> vehicleIds, List<String> vins, List<String> orderIds) {
+    }
+
+    static synchronized Path seeded(int orders) throws IOException, SQLException {
+        Path dir = Path.of(System.getProperty(DATA_DIR_PROPERTY, "target/benchmark-data"));
+        Files.createDirectories(dir);
+        Path file = dir.resolve("garage-" + orders + ".db");
+        if (Files.exists(file)) {
+            return file;
+        }
+
+        Path partial = dir.resolve("garage-" + orders + ".db.partial");
+        Files.deleteIfExists(partial);
+        try (Connection conn = open(partial)) {
+            seed(conn, orders);
+        }
+        Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    static Path scratchCopy(Path seeded) throws IOException {
+        Path copy = Files.createTempFile(seeded.getParent(), "scratch-", ".db");
+        Files.copy(seeded, copy, StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    static void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(Path.of(file + "-wal"));
+        Files.deleteIfExists(Path.of(file + "-shm"));
+    }
+
+    static Connection open(Path file) throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file);
+        StorageProfile.BALANCED.apply(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON");
+        }
+        new SchemaMigrator().migrate(conn);
+        return conn;
+    }
+
+    static Sample sample(Connection conn) throws SQLException {
+        return new Sample(
+                sampleIds(conn, "SELECT id FROM users"),
+                sampleStrings(conn, "SELECT email FROM users"),
+                sampleIds(conn, "SELECT id FROM vehicles"),
+                sampleStrings(conn, "SELECT vin FROM vehicles"),
+                sampleIds(conn, "SELECT id FROM repair_orders"));
+    }
+
+    private static void seed(Connection conn, int orders) throws SQLException {
+        IdGenerator idGenerator = IdGenerator.timeOrdered();
+        int vehicleCount = Math.max(orders / 10, 10);
+        int userCount = Math.max(vehicleCount / 2, 5);
+
+        UserDao userDao = new UserDao(conn);
+        List<String> userIds = new ArrayList<>(userCount);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            User user = new User(idGenerator, "Jan", "Kowalski", "user" + i + "@bench.pl", "secret1");
+            userIds.add(user.getUserId());
+            users.add(user);
+            if (users.size() == SEED_BATCH_SIZE || i == userCount - 1) {
+                userDao.saveAllIfAbsent(users);
+                users.clear();
+            }
+        }
+
+        VehicleDao vehicleDao = new VehicleDao(conn);
+        List<String> vehicleIds = new ArrayList<>(vehicleCount);
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < vehicleCount; i++) {
+            Vehicle vehicle = new Vehicle(idGenerator, userIds.get(i % userCount), "Toyota", "Corolla",
+                    String.format("BENCH%012d", i), "Red");
+            vehicleIds.add(vehicle.getId());
+            vehicles.add(vehicle);
+            if (vehicles.size() == SEED_BATCH_SIZE || i == vehicleCount - 1) {
+                vehicleDao.saveAllIfAbsent(vehicles);
+                vehicles.clear();
+            }
+        }
+
+        RepairOrderDao repairOrderDao = new RepairOrderDao(conn);
+        RepairStatus[] statuses = RepairStatus.values();
+        List<RepairOrder> batch = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            RepairOrder order = new RepairOrder(idGenerator.nextId(), vehicleIds.get(i % vehicleCount), "Seeded repair " + i,
+                    Money.ofGrosze(10_000 + i % 50_000), FIRST_ORDER_AT.plusMinutes(i * 5L));
+            order.updateStatus(statuses[i % statuses.length]);
+            for (int p = 0; p < PARTS_PER_ORDER; p++) {
+                order.addPart(new Part(idGenerator.nextId(), order.getId(), "PART-" + p, "Part " + p, "",
+                        Money.ofGrosze(1_000 + p * 2_500), 1 + p));
+            }
+            batch.add(order);
+            if (batch.size() == SEED_BATCH_SIZE || i == orders - 1) {
+                repairOrderDao.saveAllIfAbsent(batch);
+                batch.clear();
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    private static List<String> sampleIds(Connection conn, String sql) throws SQLException {
+        List<String> ids = new ArrayList<>();
+        for (Object value : sampleValues(conn, sql)) {
+            if (value instanceof byte[] bytes) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                ids.add(new UUID(buffer.getLong(), buffer.getLong()).toString());
+            } else {
+                ids.add(value.toString());
+            }
+        }
+        return List.copyOf(ids);
+    }
+
+    private static List<String> sampleStrings(Connection conn, String sql) throws SQLException {
+        return sampleValues(conn, sql).stream().map(Object::toString).toList();
+    }
+
+    private static List<Object> sampleValues(Connection conn, String sql) throws SQLException {
+        List<Object> values = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql + " ORDER BY random() LIMIT ?")) {
+            pstmt.setInt(1, SAMPLE_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    values.add(rs.getObject(1));
+                }
+            }
+        }
+        return values;
+    }
+}
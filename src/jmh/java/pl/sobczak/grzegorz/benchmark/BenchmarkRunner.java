@@ -0,0 +1,68 @@
+package pl.sobczak.grzegorz.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class BenchmarkRunner {
+    private static final String DEFAULT_SIZES = "1000,100000,1000000";
+    private static final String DEFAULT_THREADS = "1,4";
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        if (args.length > 0) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        String[] sizes = split(System.getProperty("bench.sizes", DEFAULT_SIZES));
+        int[] threadCounts = Arrays.stream(split(System.getProperty("bench.threads", DEFAULT_THREADS)))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        String include = System.getProperty("bench.include", BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        Path outputDir = Path.of(System.getProperty("bench.out", "target/jmh-results"));
+        String label = System.getProperty("bench.label", gitRevision());
+        Files.createDirectories(outputDir);
+
+        for (int threads : threadCounts) {
+            Path resultFile = outputDir.resolve(label + "-threads" + threads + ".json");
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .param("orders", sizes)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultFile.toString())
+                    .build();
+            new Runner(options).run();
+            System.out.println("Results written to " + resultFile);
+        }
+    }
+
+    private static String[] split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static String gitRevision() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            String revision = new String(process.getInputStream().readAllBytes()).trim();
+            return process.waitFor() == 0 && !revision.isEmpty() ? revision : "local";
+        } catch (IOException e) {
+            return "local";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "local";
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package pl.sobczak.grzegorz.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@State(Scope.Benchmark)
+public class GarageDatabase {
+    @Param({"1000", "100000", "1000000"})
+    public int orders;
+
+    Path file;
+    BenchmarkDatabase.Sample sample;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        file = BenchmarkDatabase.scratchCopy(BenchmarkDatabase.seeded(orders));
+        try (Connection conn = BenchmarkDatabase.open(file)) {
+            sample = BenchmarkDatabase.sample(conn);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkDatabase.delete(file);
+    }
+}
@@ -0,0 +1,59 @@
+package pl.sobczak.grzegorz.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pl.sobczak.grzegorz.dao.RepairOrderDao;
+import pl.sobczak.grzegorz.dao.UserCache;
+import pl.sobczak.grzegorz.dao.UserDao;
+import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.service.RepairOrderService;
+import pl.sobczak.grzegorz.service.VehicleService;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@State(Scope.Thread)
+public class GarageSession {
+    Connection connection;
+    UserDao userDao;
+    UserDao cachedUserDao;
+    VehicleDao vehicleDao;
+    RepairOrderDao repairOrderDao;
+    VehicleService vehicleService;
+    RepairOrderService repairOrderService;
+
+    private BenchmarkDatabase.Sample sample;
+
+    @Setup(Level.Trial)
+    public void open(GarageDatabase database) throws SQLException {
+        connection = BenchmarkDatabase.open(database.file);
+        sample = database.sample;
+        userDao = new UserDao(connection);
+        cachedUserDao = new UserDao(connection, new UserCache(BenchmarkDatabase.SAMPLE_SIZE * 2, Duration.ofMinutes(10)));
+        vehicleDao = new VehicleDao(connection);
+        repairOrderDao = new RepairOrderDao(connection);
+        vehicleService = new VehicleService(vehicleDao, userDao);
+        repairOrderService = new RepairOrderService(repairOrderDao, vehicleDao);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    String anyUserId() { return pick(sample.userIds()); }
+    String anyEmail() { return pick(sample.emails()); }
+    String anyVehicleId() { return pick(sample.vehicleIds()); }
+    String anyVin() { return pick(sample.vins()); }
+    String anyOrderId() { return pick(sample.orderIds()); }
+
+    private static String pick(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
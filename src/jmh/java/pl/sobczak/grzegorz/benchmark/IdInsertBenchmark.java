@@ -0,0 +1,100 @@
+package pl.sobczak.grzegorz.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.sobczak.grzegorz.dao.RepairOrderDao;
+import pl.sobczak.grzegorz.dao.UserDao;
+import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.model.IdGenerator;
+import pl.sobczak.grzegorz.model.Money;
+import pl.sobczak.grzegorz.model.RepairOrder;
+import pl.sobczak.grzegorz.model.User;
+import pl.sobczak.grzegorz.model.Vehicle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdInsertBenchmark {
+    private static final int BATCH_SIZE = 1_000;
+    private static final int USER_COUNT = 100;
+    private static final int VEHICLE_COUNT = 1_000;
+
+    @Param({"random-v4", "time-ordered-v7"})
+    public String scheme;
+
+    private IdGenerator idGenerator;
+    private Path file;
+    private Connection connection;
+    private RepairOrderDao repairOrderDao;
+    private List<String> vehicleIds;
+    private int inserted;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        idGenerator = switch (scheme) {
+            case "random-v4" -> IdGenerator.random();
+            case "time-ordered-v7" -> IdGenerator.timeOrdered();
+            default -> throw new IllegalArgumentException("Unknown id scheme: " + scheme);
+        };
+        file = Files.createTempFile("id-benchmark-", ".db");
+        connection = BenchmarkDatabase.open(file);
+        repairOrderDao = new RepairOrderDao(connection);
+
+        List<User> users = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(new User(idGenerator, "Jan", "Kowalski", "user" + i + "@bench.pl", "secret1"));
+        }
+        new UserDao(connection).saveAllIfAbsent(users);
+
+        List<Vehicle> vehicles = new ArrayList<>(VEHICLE_COUNT);
+        vehicleIds = new ArrayList<>(VEHICLE_COUNT);
+        for (int i = 0; i < VEHICLE_COUNT; i++) {
+            Vehicle vehicle = new Vehicle(idGenerator, users.get(i % USER_COUNT).getUserId(), "Toyota", "Corolla",
+                    String.format("BENCH%012d", i), "Red");
+            vehicles.add(vehicle);
+            vehicleIds.add(vehicle.getId());
+        }
+        new VehicleDao(connection).saveAllIfAbsent(vehicles);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        connection.close();
+        BenchmarkDatabase.delete(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int insertBatch() {
+        List<RepairOrder> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new RepairOrder(idGenerator, vehicleIds.get(inserted++ % VEHICLE_COUNT), "benchmark",
+                    Money.ofGrosze(10_000)));
+        }
+        return repairOrderDao.saveAllIfAbsent(batch);
+    }
+}
@@ -0,0 +1,56 @@
+package pl.sobczak.grzegorz.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.sobczak.grzegorz.dao.Page;
+import pl.sobczak.grzegorz.dao.PageRequest;
+import pl.sobczak.grzegorz.dao.SortDirection;
+import pl.sobczak.grzegorz.model.Money;
+import pl.sobczak.grzegorz.model.Part;
+import pl.sobczak.grzegorz.model.RepairOrder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepairOrderDaoBenchmark {
+
+    @Benchmark
+    public RepairOrder save(GarageSession session) {
+        RepairOrder order = new RepairOrder(session.anyVehicleId(), "Benchmark repair", 150.0);
+        order.addPart(new Part(order.getId(), "OIL-5W30", "Oil 5W30", 45.0, 5));
+        order.addPart(new Part(order.getId(), "FIL-001", "Oil filter", 30.0, 1));
+        session.repairOrderDao.save(order);
+        return order;
+    }
+
+    @Benchmark
+    public Optional<RepairOrder> findById(GarageSession session) {
+        return session.repairOrderDao.findById(session.anyOrderId());
+    }
+
+    @Benchmark
+    public List<RepairOrder> findByVehicleId(GarageSession session) {
+        return session.repairOrderDao.findByVehicleId(session.anyVehicleId());
+    }
+
+    @Benchmark
+    public Page<RepairOrder> findByVehicleIdFirstPage(GarageSession session) {
+        return session.repairOrderDao.findByVehicleId(session.anyVehicleId(), PageRequest.first(20, SortDirection.DESC));
+    }
+
+    @Benchmark
+    public Money sumTotalCostByVehicleId(GarageSession session) {
+        return session.repairOrderDao.sumTotalCostByVehicleId(session.anyVehicleId());
+    }
+}
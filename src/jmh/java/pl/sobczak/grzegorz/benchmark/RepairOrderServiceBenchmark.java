@@ -0,0 +1,45 @@
+package pl.sobczak.grzegorz.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.sobczak.grzegorz.model.Money;
+import pl.sobczak.grzegorz.model.RepairOrder;
+import pl.sobczak.grzegorz.model.RepairStatus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepairOrderServiceBenchmark {
+
+    @Benchmark
+    public RepairOrder createOrder(GarageSession session) {
+        RepairOrder order = new RepairOrder(session.anyVehicleId(), "Benchmark repair", 150.0);
+        session.repairOrderService.createOrder(order);
+        return order;
+    }
+
+    @Benchmark
+    public Money getTotalRepairCostsForVehicle(GarageSession session) {
+        return session.repairOrderService.getTotalRepairCostsForVehicle(session.anyVehicleId());
+    }
+
+    @Benchmark
+    public Money getTotalRepairCostsByStatus(GarageSession session) {
+        return session.repairOrderService.getTotalRepairCostsByStatus(RepairStatus.COMPLETED);
+    }
+
+    @Benchmark
+    public List<RepairOrder> getVehicleHistory(GarageSession session) {
+        return session.repairOrderService.getVehicleHistory(session.anyVehicleId());
+    }
+}
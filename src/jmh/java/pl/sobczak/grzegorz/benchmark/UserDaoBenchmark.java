@@ -0,0 +1,36 @@
+package pl.sobczak.grzegorz.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.sobczak.grzegorz.model.User;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDaoBenchmark {
+
+    @Benchmark
+    public Optional<User> getUserByEmail(GarageSession session) {
+        return session.userDao.getUserByEmail(session.anyEmail());
+    }
+
+    @Benchmark
+    public Optional<User> getUserById(GarageSession session) {
+        return session.userDao.getUserById(session.anyUserId());
+    }
+
+    @Benchmark
+    public Optional<User> getUserByEmailCached(GarageSession session) {
+        return session.cachedUserDao.getUserByEmail(session.anyEmail());
+    }
+}
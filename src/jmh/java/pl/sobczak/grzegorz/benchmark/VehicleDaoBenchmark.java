@@ -0,0 +1,39 @@
+package pl.sobczak.grzegorz.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.sobczak.grzegorz.dao.Page;
+import pl.sobczak.grzegorz.dao.PageRequest;
+import pl.sobczak.grzegorz.dao.SortDirection;
+import pl.sobczak.grzegorz.model.Vehicle;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VehicleDaoBenchmark {
+
+    @Benchmark
+    public Optional<Vehicle> findById(GarageSession session) {
+        return session.vehicleDao.findById(session.anyVehicleId());
+    }
+
+    @Benchmark
+    public Optional<Vehicle> findByVin(GarageSession session) {
+        return session.vehicleDao.findByVin(session.anyVin());
+    }
+
+    @Benchmark
+    public Page<Vehicle> getVehiclesByOwnerFirstPage(GarageSession session) {
+        return session.vehicleService.getVehiclesByOwner(session.anyUserId(), PageRequest.first(20, SortDirection.ASC));
+    }
+}
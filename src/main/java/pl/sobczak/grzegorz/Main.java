@@ -17,8 +17,8 @@ public class Main {
         DatabaseConnection.initDatabase();
 
         try(Connection conn = DatabaseConnection.getConnection()) {
-            UserDao userDao = new UserDao(conn);
-            VehicleDao vehicleDao = new VehicleDao(conn);
+            UserDao userDao = new UserDao(conn, DatabaseConnection.getUserCache());
+            VehicleDao vehicleDao = new VehicleDao(conn, DatabaseConnection.getVehicleCache());
             RepairOrderDao repairDao = new RepairOrderDao(conn);
 
             UserService userService = new UserService(userDao);
@@ -66,6 +66,8 @@ public class Main {
 
         } catch (IllegalArgumentException | SQLException e) {
             System.err.println("Error: " + e.getMessage());
+        } finally {
+            DatabaseConnection.shutdown();
         }
     }
 }
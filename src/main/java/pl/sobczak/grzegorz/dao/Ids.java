@@ -0,0 +1,52 @@
+package pl.sobczak.grzegorz.dao;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+final class Ids {
+    private static final int UUID_TEXT_LENGTH = 36;
+    private static final int UUID_BYTES = 16;
+
+    private Ids() {
+    }
+
+    static void bind(PreparedStatement pstmt, int index, String id) throws SQLException {
+        byte[] bytes = toBytes(id);
+        if (bytes == null) {
+            pstmt.setString(index, id);
+        } else {
+            pstmt.setBytes(index, bytes);
+        }
+    }
+
+    static String read(ResultSet rs, String column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof byte[] bytes && bytes.length == UUID_BYTES) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong()).toString();
+        }
+        return rs.getString(column);
+    }
+
+    static byte[] toBytes(String id) {
+        if (id == null || id.length() != UUID_TEXT_LENGTH) {
+            return null;
+        }
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!uuid.toString().equals(id)) {
+            return null;
+        }
+        return ByteBuffer.allocate(UUID_BYTES)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
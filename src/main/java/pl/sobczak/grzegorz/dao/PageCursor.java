@@ -0,0 +1,12 @@
+package pl.sobczak.grzegorz.dao;
+
+import java.time.LocalDateTime;
+
+public record PageCursor(LocalDateTime createdAt, String id) {
+
+    public PageCursor {
+        if (createdAt == null || id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Cursor requires both creation date and ID");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package pl.sobczak.grzegorz.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+
+public record PageRequest(PageCursor after, int size, SortDirection direction) {
+    public static final int MAX_SIZE = 1000;
+
+    public PageRequest {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE);
+        }
+        if (direction == null) {
+            throw new IllegalArgumentException("Sort direction cannot be empty");
+        }
+    }
+
+    public static PageRequest first(int size, SortDirection direction) {
+        return new PageRequest(null, size, direction);
+    }
+
+    public PageRequest next(PageCursor cursor) {
+        return new PageRequest(cursor, size, direction);
+    }
+
+    String toSql(String filteredQuery) {
+        StringBuilder sql = new StringBuilder(filteredQuery);
+        if (after != null) {
+            sql.append(direction == SortDirection.ASC ? " AND (createdAt, id) > (?, ?)" : " AND (createdAt, id) < (?, ?)");
+        }
+        sql.append(" ORDER BY createdAt ").append(direction.name())
+                .append(", id ").append(direction.name())
+                .append(" LIMIT ?");
+        return sql.toString();
+    }
+
+    int bind(PreparedStatement pstmt, int firstIndex) throws SQLException {
+        int index = firstIndex;
+        if (after != null) {
+            pstmt.setString(index++, after.createdAt().toString());
+            Ids.bind(pstmt, index++, after.id());
+        }
+        pstmt.setInt(index++, size + 1);
+        return index;
+    }
+
+    <T> Page<T> toPage(List<T> rows, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new Page<>(List.copyOf(rows), null);
+        }
+        List<T> items = List.copyOf(rows.subList(0, size));
+        return new Page<>(items, cursorOf.apply(items.getLast()));
+    }
+}
@@ -0,0 +1,14 @@
+package pl.sobczak.grzegorz.dao;
+
+import java.util.Collections;
+
+final class Placeholders {
+    static final int MAX_IN_LIST = 500;
+
+    private Placeholders() {
+    }
+
+    static String of(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
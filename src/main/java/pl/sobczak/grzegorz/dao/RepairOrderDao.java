@@ -1,6 +1,10 @@
 package pl.sobczak.grzegorz.dao;
 
+import pl.sobczak.grzegorz.metrics.MetricsRegistry;
+import pl.sobczak.grzegorz.metrics.OperationMetrics;
+import pl.sobczak.grzegorz.model.Money;
 import pl.sobczak.grzegorz.model.Part;
+import pl.sobczak.grzegorz.model.PartChanges;
 import pl.sobczak.grzegorz.model.RepairOrder;
 import pl.sobczak.grzegorz.model.RepairStatus;
 
@@ -8,120 +12,429 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public record RepairOrderDao(Connection connection) {
+public record RepairOrderDao(Connection connection, int batchSize) {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_FETCH_SIZE = 256;
+
+    private static final String INSERT_ORDER_SQL = "INSERT INTO repair_orders(id, vehicleId, description, cost, status, createdAt, totalCost) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_IF_ABSENT_SQL = "INSERT OR IGNORE INTO repair_orders(id, vehicleId, description, cost, status, createdAt, totalCost) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PART_IF_ABSENT_SQL = "INSERT OR IGNORE INTO parts(id, repairOrderId, partCode, name, description, price, quantity) VALUES (?, ?, ?, ?, ?, ?, ?)";
     private static final String INSERT_PART_SQL = "INSERT INTO parts(id, repairOrderId, partCode, name, description, price, quantity) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PART_INTO_OPEN_ORDER_SQL = "INSERT INTO parts(id, repairOrderId, partCode, name, description, price, quantity) " +
+            "SELECT ?, ?, ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM repair_orders WHERE id = ? AND status NOT IN ('" +
+            RepairStatus.COMPLETED.name() + "', '" + RepairStatus.CANCELLED.name() + "'))";
+    private static final String SUM_TOTAL_COST_SQL = "SELECT COALESCE(SUM(ro.totalCost), 0) FROM repair_orders ro WHERE ";
+    private static final String SUM_TOTAL_COST_BY_VEHICLE_SQL = SUM_TOTAL_COST_SQL + "ro.vehicleId = ?";
+    private static final String SUM_TOTAL_COST_BY_OWNER_SQL = SUM_TOTAL_COST_SQL + "ro.vehicleId IN (SELECT id FROM vehicles WHERE ownerId = ?)";
+    private static final String SUM_TOTAL_COST_BY_STATUS_SQL = SUM_TOTAL_COST_SQL + "ro.status = ?";
+    private static final String SUM_TOTAL_COST_BETWEEN_SQL = SUM_TOTAL_COST_SQL + "ro.createdAt >= ? AND ro.createdAt < ?";
+    private static final String UPDATE_PART_QUANTITY_SQL = "UPDATE parts SET quantity = ? WHERE id = ?";
+    private static final String DELETE_PART_SQL = "DELETE FROM parts WHERE id = ?";
+    private static final String SELECT_PARTS_FOR_ORDER_SQL = "SELECT * FROM parts WHERE repairOrderId = ?";
+    private static final String SELECT_ORDERS_FOR_VEHICLE_SQL = "SELECT * FROM repair_orders WHERE vehicleId = ?";
+    private static final String SELECT_PARTS_FOR_VEHICLE_SQL = "SELECT * FROM parts WHERE repairOrderId IN (SELECT id FROM repair_orders WHERE vehicleId = ?)";
+    private static final String STREAM_HISTORY_SQL = "SELECT ro.*, p.id AS part_id, p.partCode AS part_code, p.name AS part_name, " +
+            "p.description AS part_description, p.price AS part_price, p.quantity AS part_quantity " +
+            "FROM repair_orders ro LEFT JOIN parts p ON p.repairOrderId = ro.id " +
+            "WHERE ro.vehicleId = ? ORDER BY ro.createdAt, ro.id";
+
+    private static final OperationMetrics SAVE = MetricsRegistry.global().operation("RepairOrderDao.save");
+    private static final OperationMetrics UPDATE = MetricsRegistry.global().operation("RepairOrderDao.update");
+    private static final OperationMetrics SAVE_ALL = MetricsRegistry.global().operation("RepairOrderDao.saveAll");
+    private static final OperationMetrics SAVE_ALL_IF_ABSENT = MetricsRegistry.global().operation("RepairOrderDao.saveAllIfAbsent");
+    private static final OperationMetrics SAVE_PARTS_IF_ABSENT = MetricsRegistry.global().operation("RepairOrderDao.savePartsIfAbsent");
+    private static final OperationMetrics ADD_PARTS = MetricsRegistry.global().operation("RepairOrderDao.addParts");
+    private static final OperationMetrics FIND_STATUS_BY_ID = MetricsRegistry.global().operation("RepairOrderDao.findStatusById");
+    private static final OperationMetrics FIND_BY_ID = MetricsRegistry.global().operation("RepairOrderDao.findById");
+    private static final OperationMetrics FIND_EXISTING_IDS = MetricsRegistry.global().operation("RepairOrderDao.findExistingIds");
+    private static final OperationMetrics FIND_BY_VEHICLE_ID = MetricsRegistry.global().operation("RepairOrderDao.findByVehicleId");
+    private static final OperationMetrics FIND_BY_VEHICLE_ID_PAGE = MetricsRegistry.global().operation("RepairOrderDao.findByVehicleIdPage");
+    private static final OperationMetrics STREAM_BY_VEHICLE_ID = MetricsRegistry.global().operation("RepairOrderDao.streamByVehicleId");
+    private static final OperationMetrics SUM_TOTAL_COST_BY_VEHICLE_ID = MetricsRegistry.global().operation("RepairOrderDao.sumTotalCostByVehicleId");
+    private static final OperationMetrics SUM_TOTAL_COST_BY_OWNER_ID = MetricsRegistry.global().operation("RepairOrderDao.sumTotalCostByOwnerId");
+    private static final OperationMetrics SUM_TOTAL_COST_BY_STATUS = MetricsRegistry.global().operation("RepairOrderDao.sumTotalCostByStatus");
+    private static final OperationMetrics SUM_TOTAL_COST_CREATED_BETWEEN = MetricsRegistry.global().operation("RepairOrderDao.sumTotalCostCreatedBetween");
+    private static final OperationMetrics DELETE = MetricsRegistry.global().operation("RepairOrderDao.delete");
+
+    public RepairOrderDao {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+    }
+
+    public RepairOrderDao(Connection connection) {
+        this(connection, DEFAULT_BATCH_SIZE);
+    }
 
     public void save(RepairOrder order) {
-        String orderSql = "INSERT INTO repair_orders(id, vehicleId, description, cost, status, createdAt) VALUES (?, ?, ?, ?, ?, ?)";
+        SAVE.run(() -> {
+            TracedTransaction transaction = new TracedTransaction(connection);
+            try {
+                transaction.begin();
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, INSERT_ORDER_SQL)) {
+                    mapOrderToStatement(pstmt, order);
+                    pstmt.executeUpdate();
+                }
 
-        try {
-            connection.setAutoCommit(false);
-            try (PreparedStatement pstmt = connection.prepareStatement(orderSql)) {
-                mapOrderToStatement(pstmt, order);
-                pstmt.executeUpdate();
+                saveParts(order.getParts());
+
+                transaction.commit();
+                order.markPersisted();
+            } catch (SQLException e) {
+                transaction.rollback();
+                throw new RuntimeException("Error saving repair order with parts", e);
+            } finally {
+                resetAutoCommit();
             }
+        });
+    }
+
+    public void update(RepairOrder order) {
+        UPDATE.run(() -> {
+            String updateOrderSql = "UPDATE repair_orders SET description = ?, cost = ?, status = ? WHERE id = ?";
+            String deletePartsSql = "DELETE FROM parts WHERE repairOrderId = ?";
+
+            TracedTransaction transaction = new TracedTransaction(connection);
+            try {
+                transaction.begin();
 
-            try (PreparedStatement partPstmt = connection.prepareStatement(INSERT_PART_SQL)) {
-                saveParts(partPstmt, order.getParts());
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, updateOrderSql)) {
+                    pstmt.setString(1, order.getDescription());
+                    pstmt.setLong(2, order.getServiceCost().grosze());
+                    pstmt.setString(3, order.getStatus().name());
+                    Ids.bind(pstmt, 4, order.getId());
+                    pstmt.executeUpdate();
+                }
+
+                if (order.isTracked()) {
+                    syncParts(order.pendingPartChanges());
+                } else {
+                    try (PreparedStatement deletePstmt = TracedStatement.prepare(connection, deletePartsSql)) {
+                        Ids.bind(deletePstmt, 1, order.getId());
+                        deletePstmt.executeUpdate();
+                    }
+
+                    saveParts(order.getParts());
+                }
+
+                transaction.commit();
+                order.markPersisted();
+            } catch (SQLException e) {
+                transaction.rollback();
+                throw new RuntimeException("Error updating repair order and its parts", e);
+            } finally {
+                resetAutoCommit();
             }
+        });
+    }
 
-            connection.commit();
-        } catch (SQLException e) {
-            rollback();
-            throw new RuntimeException("Error saving repair order with parts", e);
-        } finally {
-            resetAutoCommit();
-        }
+    public void saveAll(Collection<RepairOrder> orders) {
+        SAVE_ALL.run(() -> {
+            if (orders.isEmpty()) {
+                return;
+            }
+
+            try {
+                connection.setAutoCommit(false);
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, INSERT_ORDER_SQL)) {
+                    executeBatched(pstmt, orders, this::mapOrderToStatement);
+                }
+
+                List<Part> parts = new ArrayList<>();
+                for (RepairOrder order : orders) {
+                    parts.addAll(order.getParts());
+                }
+                saveParts(parts);
+
+                connection.commit();
+                orders.forEach(RepairOrder::markPersisted);
+            } catch (SQLException e) {
+                rollback();
+                throw new RuntimeException("Error saving repair orders in bulk", e);
+            } finally {
+                resetAutoCommit();
+            }
+        });
     }
 
-    public void update(RepairOrder order) {
-        String updateOrderSql = "UPDATE repair_orders SET description = ?, cost = ?, status = ? WHERE id = ?";
-        String deletePartsSql = "DELETE FROM parts WHERE repairOrderId = ?";
+    public int saveAllIfAbsent(Collection<RepairOrder> orders) {
+        return SAVE_ALL_IF_ABSENT.call(() -> {
+            if (orders.isEmpty()) {
+                return 0;
+            }
 
-        try {
-            connection.setAutoCommit(false);
+            try {
+                connection.setAutoCommit(false);
+                int inserted;
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, INSERT_ORDER_IF_ABSENT_SQL)) {
+                    inserted = executeBatched(pstmt, orders, this::mapOrderToStatement);
+                }
 
-            try (PreparedStatement pstmt = connection.prepareStatement(updateOrderSql)) {
-                pstmt.setString(1, order.getDescription());
-                pstmt.setDouble(2, order.getServiceCost());
-                pstmt.setString(3, order.getStatus().name());
-                pstmt.setString(4, order.getId());
-                pstmt.executeUpdate();
+                List<Part> parts = new ArrayList<>();
+                for (RepairOrder order : orders) {
+                    parts.addAll(order.getParts());
+                }
+                if (!parts.isEmpty()) {
+                    try (PreparedStatement partPstmt = TracedStatement.prepare(connection, INSERT_PART_IF_ABSENT_SQL)) {
+                        executeBatched(partPstmt, parts, this::mapPartToStatement);
+                    }
+                }
+
+                connection.commit();
+                return inserted;
+            } catch (SQLException e) {
+                rollback();
+                throw new RuntimeException("Error saving repair orders in bulk", e);
+            } finally {
+                resetAutoCommit();
             }
+        });
+    }
 
-            try (PreparedStatement deletePstmt = connection.prepareStatement(deletePartsSql)) {
-                deletePstmt.setString(1, order.getId());
-                deletePstmt.executeUpdate();
+    public int savePartsIfAbsent(Collection<Part> parts) {
+        return SAVE_PARTS_IF_ABSENT.call(() -> {
+            if (parts.isEmpty()) {
+                return 0;
             }
 
-            try (PreparedStatement partPstmt = connection.prepareStatement(INSERT_PART_SQL)) {
-                saveParts(partPstmt, order.getParts());
+            try {
+                connection.setAutoCommit(false);
+                int inserted;
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, INSERT_PART_IF_ABSENT_SQL)) {
+                    inserted = executeBatched(pstmt, parts, this::mapPartToStatement);
+                }
+                connection.commit();
+                return inserted;
+            } catch (SQLException e) {
+                rollback();
+                throw new RuntimeException("Error saving parts in bulk", e);
+            } finally {
+                resetAutoCommit();
             }
+        });
+    }
 
-            connection.commit();
-        } catch (SQLException e) {
-            rollback();
-            throw new RuntimeException("Error updating repair order and its parts", e);
-        } finally {
-            resetAutoCommit();
-        }
+    public boolean addParts(String orderId, List<Part> parts) {
+        return ADD_PARTS.call(() -> {
+            if (parts.isEmpty()) {
+                return true;
+            }
+
+            try {
+                connection.setAutoCommit(false);
+                int inserted;
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, INSERT_PART_INTO_OPEN_ORDER_SQL)) {
+                    inserted = executeBatched(pstmt, parts, (stmt, part) -> {
+                        mapPartToStatement(stmt, part);
+                        Ids.bind(stmt, 8, orderId);
+                    });
+                }
+
+                if (inserted != parts.size()) {
+                    rollback();
+                    return false;
+                }
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                rollback();
+                throw new RuntimeException("Error adding parts to repair order", e);
+            } finally {
+                resetAutoCommit();
+            }
+        });
+    }
+
+    public Optional<RepairStatus> findStatusById(String id) {
+        return FIND_STATUS_BY_ID.call(() -> {
+            String sql = "SELECT status FROM repair_orders WHERE id = ?";
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                Ids.bind(pstmt, 1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(RepairStatus.valueOf(rs.getString("status")));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error finding repair order status", e);
+            }
+            return Optional.empty();
+        });
     }
 
     public Optional<RepairOrder> findById(String id) {
-        String sql = "SELECT * FROM repair_orders WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    RepairOrder order = mapRowToOrder(rs);
-                    loadPartsForOrder(order);
-                    return Optional.of(order);
+        return FIND_BY_ID.call(() -> {
+            String sql = "SELECT * FROM repair_orders WHERE id = ?";
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                Ids.bind(pstmt, 1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        RepairOrder order = mapRowToOrder(rs);
+                        loadParts(Map.of(order.getId(), order), SELECT_PARTS_FOR_ORDER_SQL, List.of(order.getId()));
+                        order.markPersisted();
+                        return Optional.of(order);
+                    }
                 }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error finding repair order by ID", e);
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding repair order by ID", e);
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
+    }
+
+    public Set<String> findExistingIds(Collection<String> ids) {
+        return FIND_EXISTING_IDS.call(() -> {
+            Set<String> existing = new HashSet<>();
+            List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+            for (int from = 0; from < distinct.size(); from += Placeholders.MAX_IN_LIST) {
+                List<String> chunk = distinct.subList(from, Math.min(from + Placeholders.MAX_IN_LIST, distinct.size()));
+                String sql = "SELECT id FROM repair_orders WHERE id IN (" + Placeholders.of(chunk.size()) + ")";
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Ids.bind(pstmt, i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            existing.add(Ids.read(rs, "id"));
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error checking existing repair orders", e);
+                }
+            }
+            return existing;
+        });
     }
 
     public List<RepairOrder> findByVehicleId(String vehicleId) {
-        List<RepairOrder> orders = new ArrayList<>();
-        String sql = "SELECT * FROM repair_orders WHERE vehicleId = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, vehicleId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    RepairOrder order = mapRowToOrder(rs);
-                    loadPartsForOrder(order);
-                    orders.add(order);
+        return FIND_BY_VEHICLE_ID.call(() -> {
+            Map<String, RepairOrder> orders = new LinkedHashMap<>();
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, SELECT_ORDERS_FOR_VEHICLE_SQL)) {
+                Ids.bind(pstmt, 1, vehicleId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        RepairOrder order = mapRowToOrder(rs);
+                        orders.put(order.getId(), order);
+                    }
+                }
+
+                if (!orders.isEmpty()) {
+                    loadParts(orders, SELECT_PARTS_FOR_VEHICLE_SQL, List.of(vehicleId));
                 }
+                orders.values().forEach(RepairOrder::markPersisted);
+            } catch (SQLException e) {
+                throw new RuntimeException("Error fetching repair orders for vehicle", e);
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error fetching repair orders for vehicle", e);
-        }
-        return orders;
+            return new ArrayList<>(orders.values());
+        });
+    }
+
+    public Page<RepairOrder> findByVehicleId(String vehicleId, PageRequest pageRequest) {
+        return FIND_BY_VEHICLE_ID_PAGE.call(() -> {
+            List<RepairOrder> rows = new ArrayList<>();
+            try {
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, pageRequest.toSql(SELECT_ORDERS_FOR_VEHICLE_SQL))) {
+                    Ids.bind(pstmt, 1, vehicleId);
+                    pageRequest.bind(pstmt, 2);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            rows.add(mapRowToOrder(rs));
+                        }
+                    }
+                }
+
+                Page<RepairOrder> page = pageRequest.toPage(rows, order -> new PageCursor(order.getCreatedAt(), order.getId()));
+                if (!page.items().isEmpty()) {
+                    Map<String, RepairOrder> orders = new LinkedHashMap<>();
+                    page.items().forEach(order -> orders.put(order.getId(), order));
+                    loadParts(orders, selectPartsForOrdersSql(orders.size()), new ArrayList<>(orders.keySet()));
+                }
+                page.items().forEach(RepairOrder::markPersisted);
+                return page;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error fetching repair order page for vehicle", e);
+            }
+        }, page -> page.items().size());
+    }
+
+    public Stream<RepairOrder> streamByVehicleId(String vehicleId) {
+        return streamByVehicleId(vehicleId, DEFAULT_FETCH_SIZE);
+    }
+
+    public Stream<RepairOrder> streamByVehicleId(String vehicleId, int fetchSize) {
+        return STREAM_BY_VEHICLE_ID.call(() -> {
+            PreparedStatement pstmt = null;
+            try {
+                pstmt = TracedStatement.prepare(connection, STREAM_HISTORY_SQL);
+                pstmt.setFetchSize(fetchSize);
+                Ids.bind(pstmt, 1, vehicleId);
+                ResultSet rs = pstmt.executeQuery();
+
+                PreparedStatement statement = pstmt;
+                return StreamSupport.stream(new OrderCursor(rs), false)
+                        .onClose(() -> closeCursor(rs, statement));
+            } catch (SQLException e) {
+                closeCursor(null, pstmt);
+                throw new RuntimeException("Error streaming repair orders for vehicle", e);
+            }
+        });
+    }
+
+    public Money sumTotalCostByVehicleId(String vehicleId) {
+        return SUM_TOTAL_COST_BY_VEHICLE_ID.call(() -> sumTotalCost(SUM_TOTAL_COST_BY_VEHICLE_SQL, pstmt -> Ids.bind(pstmt, 1, vehicleId), "Error calculating repair costs for vehicle"));
+    }
+
+    public Money sumTotalCostByOwnerId(String ownerId) {
+        return SUM_TOTAL_COST_BY_OWNER_ID.call(() -> sumTotalCost(SUM_TOTAL_COST_BY_OWNER_SQL, pstmt -> Ids.bind(pstmt, 1, ownerId), "Error calculating repair costs for owner"));
+    }
+
+    public Money sumTotalCostByStatus(RepairStatus status) {
+        return SUM_TOTAL_COST_BY_STATUS.call(() -> sumTotalCost(SUM_TOTAL_COST_BY_STATUS_SQL, pstmt -> pstmt.setString(1, status.name()), "Error calculating repair costs for status"));
+    }
+
+    public Money sumTotalCostCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        return SUM_TOTAL_COST_CREATED_BETWEEN.call(() -> sumTotalCost(SUM_TOTAL_COST_BETWEEN_SQL, pstmt -> {
+            pstmt.setString(1, from.toString());
+            pstmt.setString(2, to.toString());
+        }, "Error calculating repair costs for period"));
     }
 
     public void delete(String id) {
-        String sql = "DELETE FROM repair_orders WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting repair order", e);
-        }
+        DELETE.run(() -> {
+            String sql = "DELETE FROM repair_orders WHERE id = ?";
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                Ids.bind(pstmt, 1, id);
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting repair order", e);
+            }
+        });
     }
 
     private RepairOrder mapRowToOrder(ResultSet rs) throws SQLException {
+        String createdAt = rs.getString("createdAt");
         RepairOrder order = new RepairOrder(
-                rs.getString("id"),
-                rs.getString("vehicleId"),
+                Ids.read(rs, "id"),
+                Ids.read(rs, "vehicleId"),
                 rs.getString("description"),
-                rs.getDouble("cost")
+                Money.ofGrosze(rs.getLong("cost")),
+                createdAt == null ? LocalDateTime.now() : LocalDateTime.parse(createdAt)
         );
 
         order.updateStatus(RepairStatus.valueOf(rs.getString("status")));
@@ -129,47 +442,139 @@ public record RepairOrderDao(Connection connection) {
         return order;
     }
 
-    private void loadPartsForOrder(RepairOrder order) throws SQLException {
-        String sql = "SELECT * FROM parts WHERE repairOrderId = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, order.getId());
+    private Money sumTotalCost(String sql, ParameterBinder binder, String errorMessage) {
+        try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+            binder.bind(pstmt);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? Money.ofGrosze(rs.getLong(1)) : Money.ZERO;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+
+    private String selectPartsForOrdersSql(int orderCount) {
+        return "SELECT * FROM parts WHERE repairOrderId IN (" + Placeholders.of(orderCount) + ")";
+    }
+
+    private void loadParts(Map<String, RepairOrder> ordersById, String sql, List<String> keys) throws SQLException {
+        try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+            for (int i = 0; i < keys.size(); i++) {
+                Ids.bind(pstmt, i + 1, keys.get(i));
+            }
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Part part = new Part(
-                            rs.getString("id"),
-                            rs.getString("repairOrderId"),
-                            rs.getString("partCode"),
-                            rs.getString("name"),
-                            rs.getString("description"),
-                            rs.getDouble("price"),
-                            rs.getInt("quantity")
-                    );
-                    order.addPart(part);
+                    Part part = mapRowToPart(rs);
+                    RepairOrder order = ordersById.get(part.getRepairOrderId());
+                    if (order != null) {
+                        order.addPart(part);
+                    }
                 }
             }
         }
     }
 
-    private void saveParts(PreparedStatement partPstmt, List<Part> parts) throws SQLException {
-        for (Part part : parts) {
-            partPstmt.setString(1, part.getId());
-            partPstmt.setString(2, part.getRepairOrderId());
-            partPstmt.setString(3, part.getPartCode());
-            partPstmt.setString(4, part.getName());
-            partPstmt.setString(5, part.getDescription());
-            partPstmt.setDouble(6, part.getPrice());
-            partPstmt.setInt(7, part.getQuantity());
-            partPstmt.executeUpdate();
+    private Part mapRowToPart(ResultSet rs) throws SQLException {
+        return new Part(
+                Ids.read(rs, "id"),
+                Ids.read(rs, "repairOrderId"),
+                rs.getString("partCode"),
+                rs.getString("name"),
+                rs.getString("description"),
+                Money.ofGrosze(rs.getLong("price")),
+                rs.getInt("quantity")
+        );
+    }
+
+    private void closeCursor(ResultSet rs, PreparedStatement pstmt) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (pstmt != null) {
+                pstmt.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to close repair order cursor " + e.getMessage());
+        }
+    }
+
+    private void saveParts(List<Part> parts) throws SQLException {
+        if (parts.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement partPstmt = TracedStatement.prepare(connection, INSERT_PART_SQL)) {
+            executeBatched(partPstmt, parts, this::mapPartToStatement);
         }
     }
 
+    private void syncParts(PartChanges changes) throws SQLException {
+        if (!changes.removedIds().isEmpty()) {
+            try (PreparedStatement deletePstmt = TracedStatement.prepare(connection, DELETE_PART_SQL)) {
+                executeBatched(deletePstmt, changes.removedIds(), (pstmt, partId) -> Ids.bind(pstmt, 1, partId));
+            }
+        }
+
+        if (!changes.changed().isEmpty()) {
+            try (PreparedStatement updatePstmt = TracedStatement.prepare(connection, UPDATE_PART_QUANTITY_SQL)) {
+                executeBatched(updatePstmt, changes.changed(), (pstmt, part) -> {
+                    pstmt.setInt(1, part.getQuantity());
+                    Ids.bind(pstmt, 2, part.getId());
+                });
+            }
+        }
+
+        saveParts(changes.added());
+    }
+
+    private <T> int executeBatched(PreparedStatement pstmt, Collection<T> items, StatementBinder<T> binder) throws SQLException {
+        int affected = 0;
+        int pending = 0;
+        for (T item : items) {
+            binder.bind(pstmt, item);
+            pstmt.addBatch();
+            if (++pending == batchSize) {
+                affected += sum(pstmt.executeBatch());
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            affected += sum(pstmt.executeBatch());
+        }
+        return affected;
+    }
+
+    private int sum(int[] updateCounts) {
+        int total = 0;
+        if (updateCounts == null) {
+            return total;
+        }
+        for (int count : updateCounts) {
+            if (count > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    private void mapPartToStatement(PreparedStatement pstmt, Part part) throws SQLException {
+        Ids.bind(pstmt, 1, part.getId());
+        Ids.bind(pstmt, 2, part.getRepairOrderId());
+        pstmt.setString(3, part.getPartCode());
+        pstmt.setString(4, part.getName());
+        pstmt.setString(5, part.getDescription());
+        pstmt.setLong(6, part.getPrice().grosze());
+        pstmt.setInt(7, part.getQuantity());
+    }
+
     private void mapOrderToStatement(PreparedStatement pstmt, RepairOrder order) throws SQLException {
-        pstmt.setString(1, order.getId());
-        pstmt.setString(2, order.getVehicleId());
+        Ids.bind(pstmt, 1, order.getId());
+        Ids.bind(pstmt, 2, order.getVehicleId());
         pstmt.setString(3, order.getDescription());
-        pstmt.setDouble(4, order.getServiceCost());
+        pstmt.setLong(4, order.getServiceCost().grosze());
         pstmt.setString(5, order.getStatus().name());
         pstmt.setString(6, order.getCreatedAt().toString());
+        pstmt.setLong(7, order.getServiceCost().grosze());
     }
 
     private void rollback() {
@@ -187,4 +592,70 @@ public record RepairOrderDao(Connection connection) {
             System.err.println("Failed to reset auto-commit to true " + ex.getMessage());
         }
     }
+
+    private final class OrderCursor extends Spliterators.AbstractSpliterator<RepairOrder> {
+        private final ResultSet rs;
+        private RepairOrder current;
+        private boolean exhausted;
+
+        private OrderCursor(ResultSet rs) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super RepairOrder> action) {
+            try {
+                while (!exhausted && rs.next()) {
+                    RepairOrder completed = null;
+                    String orderId = Ids.read(rs, "id");
+                    if (current == null || !current.getId().equals(orderId)) {
+                        completed = current;
+                        current = mapRowToOrder(rs);
+                    }
+
+                    String partId = Ids.read(rs, "part_id");
+                    if (partId != null) {
+                        current.addPart(new Part(
+                                partId,
+                                current.getId(),
+                                rs.getString("part_code"),
+                                rs.getString("part_name"),
+                                rs.getString("part_description"),
+                                Money.ofGrosze(rs.getLong("part_price")),
+                                rs.getInt("part_quantity")
+                        ));
+                    }
+
+                    if (completed != null) {
+                        completed.markPersisted();
+                        action.accept(completed);
+                        return true;
+                    }
+                }
+                exhausted = true;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error streaming repair orders for vehicle", e);
+            }
+
+            if (current == null) {
+                return false;
+            }
+            RepairOrder last = current;
+            current = null;
+            last.markPersisted();
+            action.accept(last);
+            return true;
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder<T> {
+        void bind(PreparedStatement pstmt, T item) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface ParameterBinder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
 }
@@ -0,0 +1,242 @@
+package pl.sobczak.grzegorz.dao;
+
+import pl.sobczak.grzegorz.db.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public final class SlowQueryLog implements AutoCloseable {
+    private static final SlowQueryLog GLOBAL = new SlowQueryLog(
+            Duration.ofMillis(DatabaseConfig.load().getLong("garage.slowQuery.thresholdMs", 0)), System.err::println);
+    private static final int PLAN_CACHE_SIZE = 512;
+    private static final int QUEUE_CAPACITY = 1_000;
+    private static final String URL_PREFIX = "jdbc:sqlite:";
+
+    public record SlowQuery(String sql, String daoMethod, long nanos, long rows, boolean batched, int batchSize,
+                            List<String> parameterShapes, String url) {
+    }
+
+    private final LinkedHashMap<String, String> plans = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Connection> explainConnections = new HashMap<>();
+    private final AtomicLong logged = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long thresholdNanos;
+    private volatile Consumer<String> sink;
+    private ThreadPoolExecutor executor;
+    private boolean closed;
+
+    public SlowQueryLog(Duration threshold, Consumer<String> sink) {
+        this.thresholdNanos = toThresholdNanos(threshold);
+        this.sink = requireSink(sink);
+    }
+
+    public static SlowQueryLog global() {
+        return GLOBAL;
+    }
+
+    public boolean isEnabled() {
+        return thresholdNanos > 0;
+    }
+
+    public Duration threshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    public void setThreshold(Duration threshold) {
+        this.thresholdNanos = toThresholdNanos(threshold);
+    }
+
+    public void setSink(Consumer<String> sink) {
+        this.sink = requireSink(sink);
+    }
+
+    boolean isSlow(long nanos) {
+        long threshold = thresholdNanos;
+        return threshold > 0 && nanos >= threshold;
+    }
+
+    public long logged() {
+        return logged.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public void record(SlowQuery query) {
+        if (!isSlow(query.nanos())) {
+            return;
+        }
+        ThreadPoolExecutor worker = worker();
+        if (worker == null) {
+            dropped.incrementAndGet();
+            return;
+        }
+        try {
+            worker.execute(() -> log(query));
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        ThreadPoolExecutor worker;
+        synchronized (this) {
+            closed = true;
+            worker = executor;
+            executor = null;
+        }
+        if (worker != null) {
+            worker.shutdown();
+            try {
+                if (!worker.awaitTermination(5, TimeUnit.SECONDS)) {
+                    worker.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                worker.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        closeExplainConnections();
+    }
+
+    private synchronized ThreadPoolExecutor worker() {
+        if (closed) {
+            return null;
+        }
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                Thread thread = new Thread(r, "slow-query-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    private void log(SlowQuery query) {
+        String plan = planFor(query.url(), query.sql());
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Slow query %.1f ms in %s (%s): %s",
+                query.nanos() / 1e6,
+                query.daoMethod() == null ? "unknown DAO method" : query.daoMethod(),
+                query.batched() ? "batch of " + query.batchSize() + ", rows=" + query.rows() : "rows=" + query.rows(),
+                query.sql()));
+        sb.append(System.lineSeparator()).append("  parameters: ").append(query.parameterShapes());
+        sb.append(System.lineSeparator()).append("  plan:");
+        plan.lines().forEach(line -> sb.append(System.lineSeparator()).append("    ").append(line));
+        sink.accept(sb.toString());
+        logged.incrementAndGet();
+    }
+
+    private String planFor(String url, String sql) {
+        String plan;
+        synchronized (plans) {
+            plan = plans.get(sql);
+        }
+        if (plan != null) {
+            return plan;
+        }
+        if (!isFileBacked(url)) {
+            return "unavailable (not a file-backed database)";
+        }
+        try {
+            plan = explain(explainConnection(url), sql);
+        } catch (SQLException e) {
+            return "unavailable (" + e.getMessage() + ")";
+        }
+        synchronized (plans) {
+            plans.put(sql, plan);
+            if (plans.size() > PLAN_CACHE_SIZE) {
+                plans.remove(plans.keySet().iterator().next());
+            }
+        }
+        return plan;
+    }
+
+    private Connection explainConnection(String url) throws SQLException {
+        synchronized (explainConnections) {
+            Connection connection = explainConnections.get(url);
+            if (connection == null || connection.isClosed()) {
+                connection = DriverManager.getConnection(url);
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("PRAGMA query_only = ON");
+                }
+                explainConnections.put(url, connection);
+            }
+            return connection;
+        }
+    }
+
+    private void closeExplainConnections() {
+        synchronized (explainConnections) {
+            for (Connection connection : explainConnections.values()) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    System.err.println("Failed to close slow query log connection " + e.getMessage());
+                }
+            }
+            explainConnections.clear();
+        }
+    }
+
+    static boolean isFileBacked(String url) {
+        if (url == null || !url.startsWith(URL_PREFIX)) {
+            return false;
+        }
+        String path = url.substring(URL_PREFIX.length());
+        return !path.isEmpty()
+                && !path.startsWith(":memory:")
+                && !path.startsWith("file::memory:")
+                && !path.contains("mode=memory");
+    }
+
+    private static String explain(Connection connection, String sql) throws SQLException {
+        Map<Integer, Integer> depths = new HashMap<>();
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement pstmt = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                int depth = depths.getOrDefault(rs.getInt("parent"), -1) + 1;
+                depths.put(rs.getInt("id"), depth);
+                if (!plan.isEmpty()) {
+                    plan.append(System.lineSeparator());
+                }
+                plan.append("  ".repeat(depth)).append(rs.getString("detail"));
+            }
+        }
+        return plan.isEmpty() ? "(no plan steps)" : plan.toString();
+    }
+
+    private static long toThresholdNanos(Duration threshold) {
+        if (threshold == null || threshold.isNegative()) {
+            throw new IllegalArgumentException("Slow query threshold cannot be negative");
+        }
+        return threshold.toNanos();
+    }
+
+    private static Consumer<String> requireSink(Consumer<String> sink) {
+        if (sink == null) {
+            throw new IllegalArgumentException("Slow query sink cannot be null");
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,6 @@
+package pl.sobczak.grzegorz.dao;
+
+public enum SortDirection {
+    ASC,
+    DESC
+}
@@ -0,0 +1,40 @@
+package pl.sobczak.grzegorz.dao;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("pl.sobczak.grzegorz.SqlStatement")
+@Label("SQL Statement")
+@Category({"Garage Management System", "Database"})
+@Description("Execution of a prepared statement issued by a DAO; time spent by the caller between rows is excluded")
+public class SqlStatementEvent extends Event {
+    @Label("SQL")
+    public String sql;
+
+    @Label("DAO Method")
+    public String daoMethod;
+
+    @Label("Rows")
+    @Description("Rows read by a query, or rows changed by an update or batch")
+    public long rowCount;
+
+    @Label("Batched")
+    public boolean batched;
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Fetch Time")
+    @Description("Time spent inside ResultSet.next() while reading the rows of a query")
+    @Timespan(Timespan.NANOSECONDS)
+    public long fetchTime;
+
+    @Label("Database Time")
+    @Description("Execution time plus fetch time, without the caller's processing between rows")
+    @Timespan(Timespan.NANOSECONDS)
+    public long databaseTime;
+}
@@ -0,0 +1,25 @@
+package pl.sobczak.grzegorz.dao;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("pl.sobczak.grzegorz.SqlTransaction")
+@Label("SQL Transaction")
+@Category({"Garage Management System", "Database"})
+@Description("Begin, commit or rollback of a DAO transaction")
+public class SqlTransactionEvent extends Event {
+    @Label("Action")
+    public String action;
+
+    @Label("DAO Method")
+    public String daoMethod;
+
+    @Label("Transaction Duration")
+    @Description("Time from begin to this commit or rollback")
+    @Timespan(Timespan.NANOSECONDS)
+    public long transactionDuration;
+}
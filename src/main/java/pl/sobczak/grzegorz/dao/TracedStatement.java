@@ -0,0 +1,270 @@
+package pl.sobczak.grzegorz.dao;
+
+import jdk.jfr.EventType;
+import pl.sobczak.grzegorz.metrics.OperationMetrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+final class TracedStatement implements InvocationHandler {
+    private static final EventType STATEMENT_EVENTS = EventType.getEventType(SqlStatementEvent.class);
+
+    private final PreparedStatement statement;
+    private final String sql;
+    private final SlowQueryLog slowQueryLog;
+    private String[] parameterShapes;
+    private int pendingBatch;
+    private Execution openQuery;
+
+    private static final class Execution {
+        private final SqlStatementEvent event;
+        private final String daoMethod;
+        private final boolean batched;
+        private final int batchSize;
+        private long rows;
+        private long executeNanos;
+        private long fetchNanos;
+
+        private Execution(SqlStatementEvent event, String daoMethod, boolean batched, int batchSize) {
+            this.event = event;
+            this.daoMethod = daoMethod;
+            this.batched = batched;
+            this.batchSize = batchSize;
+        }
+    }
+
+    private TracedStatement(PreparedStatement statement, String sql, SlowQueryLog slowQueryLog) {
+        this.statement = statement;
+        this.sql = sql;
+        this.slowQueryLog = slowQueryLog;
+        this.parameterShapes = slowQueryLog == null ? null : new String[0];
+    }
+
+    static PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        SlowQueryLog slowQueryLog = SlowQueryLog.global().isEnabled() ? SlowQueryLog.global() : null;
+        if (slowQueryLog == null && !STATEMENT_EVENTS.isEnabled()) {
+            return statement;
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new TracedStatement(statement, sql, slowQueryLog));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        boolean noArgs = args == null || args.length == 0;
+        String name = method.getName();
+        switch (name) {
+            case "executeQuery" -> {
+                if (noArgs) {
+                    return executeQuery();
+                }
+            }
+            case "executeUpdate" -> {
+                if (noArgs) {
+                    return executeUpdate();
+                }
+            }
+            case "executeBatch" -> {
+                return executeBatch();
+            }
+            case "addBatch" -> {
+                if (noArgs) {
+                    pendingBatch++;
+                }
+            }
+            case "clearBatch" -> pendingBatch = 0;
+            case "clearParameters" -> {
+                if (parameterShapes != null) {
+                    parameterShapes = new String[0];
+                }
+            }
+            case "close" -> finishQuery();
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "toString" -> {
+                return "TracedStatement[" + statement + "]";
+            }
+            default -> {
+                if (parameterShapes != null && name.startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer index) {
+                    recordShape(index, name, args[1]);
+                }
+            }
+        }
+        return forward(statement, method, args);
+    }
+
+    private ResultSet executeQuery() throws SQLException {
+        finishQuery();
+        Execution execution = start(false, 0);
+        ResultSet rs;
+        long executeStart = System.nanoTime();
+        try {
+            rs = statement.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            executed(execution, executeStart);
+            finish(execution);
+            throw e;
+        }
+        executed(execution, executeStart);
+        openQuery = execution;
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next" -> {
+                            long fetchStart = System.nanoTime();
+                            boolean hasRow = (boolean) forward(rs, method, args);
+                            execution.fetchNanos += System.nanoTime() - fetchStart;
+                            if (hasRow) {
+                                execution.rows++;
+                            } else if (openQuery == execution) {
+                                finishQuery();
+                            }
+                            return hasRow;
+                        }
+                        case "close" -> {
+                            if (openQuery == execution) {
+                                finishQuery();
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                    return forward(rs, method, args);
+                });
+    }
+
+    private int executeUpdate() throws SQLException {
+        finishQuery();
+        Execution execution = start(false, 0);
+        long executeStart = System.nanoTime();
+        try {
+            int changed = statement.executeUpdate();
+            execution.rows = Math.max(changed, 0);
+            return changed;
+        } finally {
+            executed(execution, executeStart);
+            finish(execution);
+        }
+    }
+
+    private int[] executeBatch() throws SQLException {
+        finishQuery();
+        Execution execution = start(true, pendingBatch);
+        pendingBatch = 0;
+        long executeStart = System.nanoTime();
+        try {
+            int[] counts = statement.executeBatch();
+            for (int count : counts) {
+                execution.rows += Math.max(count, 0);
+            }
+            return counts;
+        } finally {
+            executed(execution, executeStart);
+            finish(execution);
+        }
+    }
+
+    private void finishQuery() {
+        Execution execution = openQuery;
+        if (execution != null) {
+            openQuery = null;
+            finish(execution);
+        }
+    }
+
+    private Execution start(boolean batched, int batchSize) {
+        String daoMethod = OperationMetrics.currentOperation();
+        SqlStatementEvent event = null;
+        if (STATEMENT_EVENTS.isEnabled()) {
+            event = new SqlStatementEvent();
+            event.begin();
+        }
+        return new Execution(event, daoMethod, batched, batchSize);
+    }
+
+    private static void executed(Execution execution, long executeStart) {
+        execution.executeNanos += System.nanoTime() - executeStart;
+        if (execution.event != null) {
+            execution.event.end();
+        }
+    }
+
+    private void finish(Execution execution) {
+        long databaseNanos = execution.executeNanos + execution.fetchNanos;
+        SqlStatementEvent event = execution.event;
+        if (event != null) {
+            if (event.shouldCommit()) {
+                event.sql = sql;
+                event.daoMethod = execution.daoMethod;
+                event.rowCount = execution.rows;
+                event.batched = execution.batched;
+                event.batchSize = execution.batchSize;
+                event.fetchTime = execution.fetchNanos;
+                event.databaseTime = databaseNanos;
+                event.commit();
+            }
+        }
+        if (slowQueryLog != null && slowQueryLog.isSlow(databaseNanos)) {
+            slowQueryLog.record(new SlowQueryLog.SlowQuery(sql, execution.daoMethod, databaseNanos, execution.rows,
+                    execution.batched, execution.batchSize, List.copyOf(Arrays.asList(parameterShapes)), databaseUrl()));
+        }
+    }
+
+    private void recordShape(int index, String setter, Object value) {
+        if (index < 1) {
+            return;
+        }
+        if (index > parameterShapes.length) {
+            parameterShapes = Arrays.copyOf(parameterShapes, index);
+            Arrays.fill(parameterShapes, 0, index, "UNBOUND");
+        }
+        parameterShapes[index - 1] = shapeOf(setter, value);
+    }
+
+    private static String shapeOf(String setter, Object value) {
+        if (value == null || setter.equals("setNull")) {
+            return "NULL";
+        }
+        return switch (setter) {
+            case "setString", "setNString" -> "TEXT(" + ((String) value).length() + ")";
+            case "setBytes" -> "BLOB(" + ((byte[]) value).length + ")";
+            case "setInt", "setLong", "setShort", "setByte", "setBoolean" -> "INTEGER";
+            case "setDouble", "setFloat", "setBigDecimal" -> "REAL";
+            default -> value.getClass().getSimpleName().toUpperCase();
+        };
+    }
+
+    private String databaseUrl() {
+        try {
+            return statement.getConnection().getMetaData().getURL();
+        } catch (SQLException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
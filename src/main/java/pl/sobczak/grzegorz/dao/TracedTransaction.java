@@ -0,0 +1,60 @@
+package pl.sobczak.grzegorz.dao;
+
+import pl.sobczak.grzegorz.metrics.OperationMetrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+final class TracedTransaction {
+    private final Connection connection;
+    private final String daoMethod;
+    private long startedAt;
+
+    TracedTransaction(Connection connection) {
+        this.connection = connection;
+        this.daoMethod = OperationMetrics.currentOperation();
+    }
+
+    void begin() throws SQLException {
+        SqlTransactionEvent event = new SqlTransactionEvent();
+        event.begin();
+        startedAt = System.nanoTime();
+        try {
+            connection.setAutoCommit(false);
+        } finally {
+            emit(event, "begin", 0);
+        }
+    }
+
+    void commit() throws SQLException {
+        SqlTransactionEvent event = new SqlTransactionEvent();
+        event.begin();
+        try {
+            connection.commit();
+        } finally {
+            emit(event, "commit", System.nanoTime() - startedAt);
+        }
+    }
+
+    void rollback() {
+        SqlTransactionEvent event = new SqlTransactionEvent();
+        event.begin();
+        try {
+            connection.rollback();
+        } catch (SQLException ex) {
+            System.err.println("Failed to rollback transaction " + ex.getMessage());
+        } finally {
+            emit(event, "rollback", startedAt == 0 ? 0 : System.nanoTime() - startedAt);
+        }
+    }
+
+    private void emit(SqlTransactionEvent event, String action, long transactionDuration) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.daoMethod = daoMethod;
+            event.transactionDuration = transactionDuration;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package pl.sobczak.grzegorz.dao;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class UserCache {
+
+    public record CacheStats(int size, long hits, long misses, long evictions, long expirations, long invalidations) {
+
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record Entry(UserRow row, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> byId = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> idByEmail = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public UserCache(int maxSize, Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("User cache size must be at least 1");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("User cache TTL must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(byId.size(), hits, misses, evictions, expirations, invalidations);
+    }
+
+    public synchronized void clear() {
+        byId.clear();
+        idByEmail.clear();
+        invalidations++;
+    }
+
+    synchronized UserRow getById(String id) {
+        return lookup(id);
+    }
+
+    synchronized UserRow getByEmail(String email) {
+        return lookup(idByEmail.get(email));
+    }
+
+    synchronized long stamp() {
+        return invalidations;
+    }
+
+    synchronized void put(UserRow row, long stamp) {
+        if (stamp != invalidations) {
+            return;
+        }
+        remove(row.id());
+        byId.put(row.id(), new Entry(row, System.nanoTime() + ttlNanos));
+        idByEmail.put(row.email(), row.id());
+
+        Iterator<Entry> eldestFirst = byId.values().iterator();
+        while (byId.size() > maxSize) {
+            Entry eldest = eldestFirst.next();
+            eldestFirst.remove();
+            idByEmail.remove(eldest.row().email(), eldest.row().id());
+            evictions++;
+        }
+    }
+
+    synchronized void invalidate(String id) {
+        remove(id);
+        invalidations++;
+    }
+
+    private UserRow lookup(String id) {
+        Entry entry = id == null ? null : byId.get(id);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() >= 0) {
+            remove(id);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.row();
+    }
+
+    private void remove(String id) {
+        Entry removed = byId.remove(id);
+        if (removed != null) {
+            idByEmail.remove(removed.row().email(), id);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package pl.sobczak.grzegorz.dao;
 
+import pl.sobczak.grzegorz.metrics.MetricsRegistry;
+import pl.sobczak.grzegorz.metrics.OperationMetrics;
 import pl.sobczak.grzegorz.model.Role;
 import pl.sobczak.grzegorz.model.User;
 
@@ -7,74 +9,166 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public record UserDao(Connection connection) {
+public record UserDao(Connection connection, UserCache cache) {
+    public static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users(id, firstName, lastName, email, password, role, isActive) VALUES(?,?,?,?,?,?,?)";
+    private static final String INSERT_USER_IF_ABSENT_SQL = "INSERT OR IGNORE INTO users(id, firstName, lastName, email, password, role, isActive) VALUES(?,?,?,?,?,?,?)";
+
+    private static final OperationMetrics SAVE_USER = MetricsRegistry.global().operation("UserDao.saveUser");
+    private static final OperationMetrics SAVE_ALL_IF_ABSENT = MetricsRegistry.global().operation("UserDao.saveAllIfAbsent");
+    private static final OperationMetrics UPDATE_USER = MetricsRegistry.global().operation("UserDao.updateUser");
+    private static final OperationMetrics DELETE_USER = MetricsRegistry.global().operation("UserDao.deleteUser");
+    private static final OperationMetrics GET_USER_BY_EMAIL = MetricsRegistry.global().operation("UserDao.getUserByEmail");
+    private static final OperationMetrics GET_USER_BY_ID = MetricsRegistry.global().operation("UserDao.getUserById");
+    private static final OperationMetrics FIND_EXISTING_IDS = MetricsRegistry.global().operation("UserDao.findExistingIds");
+
+    public UserDao(Connection connection) {
+        this(connection, null);
+    }
 
     public void saveUser(User user) {
-        String sql = "INSERT INTO users(id, firstName, lastName, email, password, role, isActive) VALUES(?,?,?,?,?,?,?)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, user.getUserId());
-            pstmt.setString(2, user.getFirstName());
-            pstmt.setString(3, user.getLastName());
-            pstmt.setString(4, user.getEmail());
-            pstmt.setString(5, "hidden_password");
-            pstmt.setString(6, user.getRole().name());
-            pstmt.setInt(7, user.isActive() ? 1 : 0);
-
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error saving user to database", e);
-        }
+        SAVE_USER.run(() -> {
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, INSERT_USER_SQL)) {
+                mapUserToStatement(pstmt, user);
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving user to database", e);
+            }
+        });
+    }
+
+    public Set<String> saveAllIfAbsent(List<User> users) {
+        return SAVE_ALL_IF_ABSENT.call(() -> {
+            Set<String> inserted = new HashSet<>();
+            if (users.isEmpty()) {
+                return inserted;
+            }
+
+            try {
+                connection.setAutoCommit(false);
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, INSERT_USER_IF_ABSENT_SQL)) {
+                    for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+                        List<User> batch = users.subList(from, Math.min(from + BATCH_SIZE, users.size()));
+                        for (User user : batch) {
+                            mapUserToStatement(pstmt, user);
+                            pstmt.addBatch();
+                        }
+                        int[] counts = pstmt.executeBatch();
+                        for (int i = 0; i < batch.size(); i++) {
+                            if (counts != null && i < counts.length && counts[i] > 0) {
+                                inserted.add(batch.get(i).getUserId());
+                            }
+                        }
+                    }
+                }
+                connection.commit();
+                return inserted;
+            } catch (SQLException e) {
+                rollback();
+                throw new RuntimeException("Error saving users in bulk", e);
+            } finally {
+                resetAutoCommit();
+            }
+        });
     }
 
     public void updateUser(User user) {
-        String sql = "UPDATE users SET firstName = ?, lastName = ?, role = ?, isActive = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, user.getFirstName());
-            pstmt.setString(2, user.getLastName());
-            pstmt.setString(3, user.getRole().name());
-            pstmt.setInt(4, user.isActive() ? 1 : 0);
-            pstmt.setString(5, user.getUserId());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating user", e);
-        }
+        UPDATE_USER.run(() -> {
+            String sql = "UPDATE users SET firstName = ?, lastName = ?, role = ?, isActive = ? WHERE id = ?";
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                pstmt.setString(1, user.getFirstName());
+                pstmt.setString(2, user.getLastName());
+                pstmt.setString(3, user.getRole().name());
+                pstmt.setInt(4, user.isActive() ? 1 : 0);
+                Ids.bind(pstmt, 5, user.getUserId());
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating user", e);
+            } finally {
+                invalidate(user.getUserId());
+            }
+        });
     }
 
     public void deleteUser(String id) {
-        String sql = "DELETE FROM users WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting user", e);
-        }
+        DELETE_USER.run(() -> {
+            String sql = "DELETE FROM users WHERE id = ?";
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                Ids.bind(pstmt, 1, id);
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting user", e);
+            } finally {
+                invalidate(id);
+            }
+        });
     }
 
     public Optional<User> getUserByEmail(String email) {
-        String sql = "SELECT * FROM users WHERE email = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, email);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapRowToUser(rs));
-                }
+        return GET_USER_BY_EMAIL.call(() -> {
+            UserRow cached = cache == null ? null : cache.getByEmail(email);
+            if (cached != null) {
+                return Optional.of(cached.toUser());
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error fetching user", e);
-        }
-        return Optional.empty();
+            return findUser("SELECT * FROM users WHERE email = ?", email);
+        });
     }
 
     public Optional<User> getUserById(String id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id);
+        return GET_USER_BY_ID.call(() -> {
+            UserRow cached = cache == null ? null : cache.getById(id);
+            if (cached != null) {
+                return Optional.of(cached.toUser());
+            }
+            return findUser("SELECT * FROM users WHERE id = ?", id);
+        });
+    }
+
+    public Set<String> findExistingIds(Collection<String> ids) {
+        return FIND_EXISTING_IDS.call(() -> {
+            Set<String> existing = new HashSet<>();
+            List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+            for (int from = 0; from < distinct.size(); from += Placeholders.MAX_IN_LIST) {
+                List<String> chunk = distinct.subList(from, Math.min(from + Placeholders.MAX_IN_LIST, distinct.size()));
+                String sql = "SELECT id FROM users WHERE id IN (" + Placeholders.of(chunk.size()) + ")";
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Ids.bind(pstmt, i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            existing.add(Ids.read(rs, "id"));
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error checking existing users", e);
+                }
+            }
+            return existing;
+        });
+    }
+
+    private Optional<User> findUser(String sql, String key) {
+        long stamp = cache == null ? 0 : cache.stamp();
+        try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+            Ids.bind(pstmt, 1, key);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapRowToUser(rs));
+                    UserRow row = mapRowToUser(rs);
+                    User user = row.toUser();
+                    if (cache != null) {
+                        cache.put(row, stamp);
+                    }
+                    return Optional.of(user);
                 }
             }
         } catch (SQLException e) {
@@ -83,27 +177,54 @@ public record UserDao(Connection connection) {
         return Optional.empty();
     }
 
-    private User mapRowToUser(ResultSet rs) throws SQLException {
-        User user = new User(
-                rs.getString("id"),
-                rs.getString("firstName"),
-                rs.getString("lastName"),
-                rs.getString("email"),
-                "secret"
-        );
+    private void mapUserToStatement(PreparedStatement pstmt, User user) throws SQLException {
+        Ids.bind(pstmt, 1, user.getUserId());
+        pstmt.setString(2, user.getFirstName());
+        pstmt.setString(3, user.getLastName());
+        pstmt.setString(4, user.getEmail());
+        pstmt.setString(5, "hidden_password");
+        pstmt.setString(6, user.getRole().name());
+        pstmt.setInt(7, user.isActive() ? 1 : 0);
+    }
 
-        String roleName = rs.getString("role");
-        if (roleName != null) {
-            try {
-                user.updateRole(Role.valueOf(roleName.toUpperCase()));
-            } catch (IllegalArgumentException e) {
-                user.updateRole(Role.USER);
-            }
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException ex) {
+            System.err.println("Failed to rollback transaction " + ex.getMessage());
         }
+    }
+
+    private void resetAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException ex) {
+            System.err.println("Failed to reset auto-commit to true " + ex.getMessage());
+        }
+    }
 
-        if (rs.getInt("isActive") == 0) {
-            user.deactivate();
+    private void invalidate(String id) {
+        if (cache != null) {
+            cache.invalidate(id);
         }
-        return user;
+    }
+
+    private UserRow mapRowToUser(ResultSet rs) throws SQLException {
+        String roleName = rs.getString("role");
+        Role role;
+        try {
+            role = roleName == null ? Role.USER : Role.valueOf(roleName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            role = Role.USER;
+        }
+
+        return new UserRow(
+                Ids.read(rs, "id"),
+                rs.getString("firstName"),
+                rs.getString("lastName"),
+                rs.getString("email"),
+                role,
+                rs.getInt("isActive") != 0
+        );
     }
 }
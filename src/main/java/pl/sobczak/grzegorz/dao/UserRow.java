@@ -0,0 +1,16 @@
+package pl.sobczak.grzegorz.dao;
+
+import pl.sobczak.grzegorz.model.Role;
+import pl.sobczak.grzegorz.model.User;
+
+record UserRow(String id, String firstName, String lastName, String email, Role role, boolean active) {
+
+    User toUser() {
+        User user = new User(id, firstName, lastName, email, "secret");
+        user.updateRole(role);
+        if (!active) {
+            user.deactivate();
+        }
+        return user;
+    }
+}
@@ -0,0 +1,189 @@
+package pl.sobczak.grzegorz.dao;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class VehicleCache {
+
+    public record CacheStats(int size, long hits, long misses, long evictions, long rejections, long invalidations) {
+
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final int windowSize;
+    private final int mainSize;
+    private final LinkedHashMap<String, VehicleRow> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, VehicleRow> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> idByVin = new HashMap<>();
+    private final FrequencySketch sketch;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+    private long invalidations;
+
+    public VehicleCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Vehicle cache size must be at least 1");
+        }
+        this.windowSize = Math.max(1, maxSize / 100);
+        this.mainSize = maxSize - windowSize;
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(window.size() + main.size(), hits, misses, evictions, rejections, invalidations);
+    }
+
+    public synchronized void clear() {
+        window.clear();
+        main.clear();
+        idByVin.clear();
+        invalidations++;
+    }
+
+    synchronized VehicleRow getById(String id) {
+        return lookup(id);
+    }
+
+    synchronized VehicleRow getByVin(String vin) {
+        return lookup(idByVin.get(vin));
+    }
+
+    synchronized long stamp() {
+        return invalidations;
+    }
+
+    synchronized void put(VehicleRow row, long stamp) {
+        if (stamp != invalidations) {
+            return;
+        }
+        remove(row.id());
+        sketch.increment(row.id());
+        window.put(row.id(), row);
+        idByVin.put(row.vin(), row.id());
+
+        if (window.size() <= windowSize) {
+            return;
+        }
+        VehicleRow candidate = removeEldest(window);
+        if (main.size() < mainSize) {
+            main.put(candidate.id(), candidate);
+            return;
+        }
+
+        VehicleRow victim = main.isEmpty() ? null : main.sequencedValues().getFirst();
+        if (victim != null && sketch.frequency(candidate.id()) > sketch.frequency(victim.id())) {
+            removeEldest(main);
+            idByVin.remove(victim.vin(), victim.id());
+            main.put(candidate.id(), candidate);
+            evictions++;
+        } else {
+            idByVin.remove(candidate.vin(), candidate.id());
+            rejections++;
+        }
+    }
+
+    synchronized void invalidate(String id) {
+        remove(id);
+        invalidations++;
+    }
+
+    private VehicleRow lookup(String id) {
+        VehicleRow row = null;
+        if (id != null) {
+            row = window.get(id);
+            if (row == null) {
+                row = main.get(id);
+            }
+        }
+        if (row == null) {
+            misses++;
+            return null;
+        }
+        sketch.increment(id);
+        hits++;
+        return row;
+    }
+
+    private VehicleRow removeEldest(LinkedHashMap<String, VehicleRow> segment) {
+        Iterator<VehicleRow> eldestFirst = segment.values().iterator();
+        VehicleRow eldest = eldestFirst.next();
+        eldestFirst.remove();
+        return eldest;
+    }
+
+    private void remove(String id) {
+        VehicleRow removed = window.remove(id);
+        if (removed == null) {
+            removed = main.remove(id);
+        }
+        if (removed != null) {
+            idByVin.remove(removed.vin(), id);
+        }
+    }
+
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = {0x97cb3127, 0xb492b66f, 0x9ae16a3b, 0x2f4b9d1b};
+        private static final int MAX_COUNT = 15;
+
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int maxSize) {
+            int length = Integer.highestOneBit(Math.max(16, maxSize * 16 - 1)) << 1;
+            this.counters = new byte[length];
+            this.mask = length - 1;
+            this.sampleSize = Math.max(10, maxSize * 10);
+        }
+
+        private int frequency(String key) {
+            int hash = spread(key);
+            int min = MAX_COUNT;
+            for (int seed : SEEDS) {
+                min = Math.min(min, counters[index(hash, seed)]);
+            }
+            return min;
+        }
+
+        private void increment(String key) {
+            int hash = spread(key);
+            boolean added = false;
+            for (int seed : SEEDS) {
+                int index = index(hash, seed);
+                if (counters[index] < MAX_COUNT) {
+                    counters[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = (byte) (counters[i] >>> 1);
+            }
+            additions /= 2;
+        }
+
+        private int spread(String key) {
+            int hash = key.hashCode() * 0x9e3779b9;
+            return hash ^ (hash >>> 16);
+        }
+
+        private int index(int hash, int seed) {
+            int mixed = hash * seed;
+            return (mixed ^ (mixed >>> 15)) & mask;
+        }
+    }
+}
@@ -1,107 +1,284 @@
 package pl.sobczak.grzegorz.dao;
 
+import pl.sobczak.grzegorz.metrics.MetricsRegistry;
+import pl.sobczak.grzegorz.metrics.OperationMetrics;
 import pl.sobczak.grzegorz.model.Vehicle;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public record VehicleDao(Connection connection) {
+public record VehicleDao(Connection connection, VehicleCache cache) {
+    public static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_VEHICLES_FOR_OWNER_SQL = "SELECT * FROM vehicles WHERE ownerId = ?";
+    private static final String INSERT_VEHICLE_IF_ABSENT_SQL = "INSERT OR IGNORE INTO vehicles(id, ownerId, brand, model, vin, color, createdAt) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final OperationMetrics SAVE = MetricsRegistry.global().operation("VehicleDao.save");
+    private static final OperationMetrics SAVE_ALL_IF_ABSENT = MetricsRegistry.global().operation("VehicleDao.saveAllIfAbsent");
+    private static final OperationMetrics FIND_BY_ID = MetricsRegistry.global().operation("VehicleDao.findById");
+    private static final OperationMetrics FIND_BY_VIN = MetricsRegistry.global().operation("VehicleDao.findByVin");
+    private static final OperationMetrics FIND_EXISTING_VINS = MetricsRegistry.global().operation("VehicleDao.findExistingVins");
+    private static final OperationMetrics FIND_EXISTING_IDS = MetricsRegistry.global().operation("VehicleDao.findExistingIds");
+    private static final OperationMetrics FIND_BY_OWNER_ID = MetricsRegistry.global().operation("VehicleDao.findByOwnerId");
+    private static final OperationMetrics FIND_BY_OWNER_ID_PAGE = MetricsRegistry.global().operation("VehicleDao.findByOwnerIdPage");
+    private static final OperationMetrics UPDATE = MetricsRegistry.global().operation("VehicleDao.update");
+    private static final OperationMetrics DELETE = MetricsRegistry.global().operation("VehicleDao.delete");
+
+    public VehicleDao(Connection connection) {
+        this(connection, null);
+    }
 
     public void save(Vehicle vehicle) {
-        String sql = "INSERT INTO vehicles(id, ownerId, brand, model, vin, color) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, vehicle.getId());
-            pstmt.setString(2, vehicle.getOwnerId());
-            pstmt.setString(3, vehicle.getBrand());
-            pstmt.setString(4, vehicle.getModel());
-            pstmt.setString(5, vehicle.getVin());
-            pstmt.setString(6, vehicle.getColor());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error saving vehicle", e);
-        }
+        SAVE.run(() -> {
+            String sql = "INSERT INTO vehicles(id, ownerId, brand, model, vin, color, createdAt) VALUES (?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                mapVehicleToStatement(pstmt, vehicle);
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving vehicle", e);
+            }
+        });
     }
 
-    public Optional<Vehicle> findById(String id) {
-        String sql = "SELECT * FROM vehicles WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapRowToVehicle(rs));
+    public Set<String> saveAllIfAbsent(List<Vehicle> vehicles) {
+        return SAVE_ALL_IF_ABSENT.call(() -> {
+            Set<String> inserted = new HashSet<>();
+            if (vehicles.isEmpty()) {
+                return inserted;
+            }
+
+            try {
+                connection.setAutoCommit(false);
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, INSERT_VEHICLE_IF_ABSENT_SQL)) {
+                    for (int from = 0; from < vehicles.size(); from += BATCH_SIZE) {
+                        List<Vehicle> batch = vehicles.subList(from, Math.min(from + BATCH_SIZE, vehicles.size()));
+                        for (Vehicle vehicle : batch) {
+                            mapVehicleToStatement(pstmt, vehicle);
+                            pstmt.addBatch();
+                        }
+                        int[] counts = pstmt.executeBatch();
+                        for (int i = 0; i < batch.size(); i++) {
+                            if (counts != null && i < counts.length && counts[i] > 0) {
+                                inserted.add(batch.get(i).getId());
+                            }
+                        }
+                    }
                 }
+                connection.commit();
+                return inserted;
+            } catch (SQLException e) {
+                rollback();
+                throw new RuntimeException("Error saving vehicles in bulk", e);
+            } finally {
+                resetAutoCommit();
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding vehicle by ID", e);
-        }
-        return Optional.empty();
+        });
+    }
+
+    public Optional<Vehicle> findById(String id) {
+        return FIND_BY_ID.call(() -> {
+            VehicleRow cached = cache == null ? null : cache.getById(id);
+            if (cached != null) {
+                return Optional.of(cached.toVehicle());
+            }
+            return findVehicle("SELECT * FROM vehicles WHERE id = ?", id, "Error finding vehicle by ID");
+        });
     }
 
     public Optional<Vehicle> findByVin(String vin) {
-        String sql = "SELECT * FROM vehicles WHERE vin = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, vin);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapRowToVehicle(rs));
+        return FIND_BY_VIN.call(() -> {
+            VehicleRow cached = cache == null ? null : cache.getByVin(vin);
+            if (cached != null) {
+                return Optional.of(cached.toVehicle());
+            }
+            return findVehicle("SELECT * FROM vehicles WHERE vin = ?", vin, "Error finding vehicle by VIN");
+        });
+    }
+
+    public Set<String> findExistingVins(Collection<String> vins) {
+        return FIND_EXISTING_VINS.call(() -> {
+            Set<String> existing = new HashSet<>();
+            List<String> distinct = new ArrayList<>(new LinkedHashSet<>(vins));
+            for (int from = 0; from < distinct.size(); from += Placeholders.MAX_IN_LIST) {
+                List<String> chunk = distinct.subList(from, Math.min(from + Placeholders.MAX_IN_LIST, distinct.size()));
+                String sql = "SELECT vin FROM vehicles WHERE vin IN (" + Placeholders.of(chunk.size()) + ")";
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            existing.add(rs.getString("vin"));
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error checking existing VINs", e);
                 }
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding vehicle by VIN", e);
-        }
-        return Optional.empty();
+            return existing;
+        });
+    }
+
+    public Set<String> findExistingIds(Collection<String> ids) {
+        return FIND_EXISTING_IDS.call(() -> {
+            Set<String> existing = new HashSet<>();
+            List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+            for (int from = 0; from < distinct.size(); from += Placeholders.MAX_IN_LIST) {
+                List<String> chunk = distinct.subList(from, Math.min(from + Placeholders.MAX_IN_LIST, distinct.size()));
+                String sql = "SELECT id FROM vehicles WHERE id IN (" + Placeholders.of(chunk.size()) + ")";
+                try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Ids.bind(pstmt, i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            existing.add(Ids.read(rs, "id"));
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error checking existing vehicles", e);
+                }
+            }
+            return existing;
+        });
     }
 
     public List<Vehicle> findByOwnerId(String ownerId) {
-        List<Vehicle> vehicles = new ArrayList<>();
-        String sql = "SELECT * FROM vehicles WHERE ownerId = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, ownerId);
+        return FIND_BY_OWNER_ID.call(() -> {
+            List<Vehicle> vehicles = new ArrayList<>();
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, SELECT_VEHICLES_FOR_OWNER_SQL)) {
+                Ids.bind(pstmt, 1, ownerId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        vehicles.add(mapRowToVehicle(rs).toVehicle());
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error fetching vehicles for owner: " + ownerId, e);
+            }
+            return vehicles;
+        });
+    }
+
+    public Page<Vehicle> findByOwnerId(String ownerId, PageRequest pageRequest) {
+        return FIND_BY_OWNER_ID_PAGE.call(() -> {
+            List<Vehicle> rows = new ArrayList<>();
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, pageRequest.toSql(SELECT_VEHICLES_FOR_OWNER_SQL))) {
+                Ids.bind(pstmt, 1, ownerId);
+                pageRequest.bind(pstmt, 2);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(mapRowToVehicle(rs).toVehicle());
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error fetching vehicle page for owner: " + ownerId, e);
+            }
+            return pageRequest.toPage(rows, vehicle -> new PageCursor(vehicle.getCreatedAt(), vehicle.getId()));
+        }, page -> page.items().size());
+    }
+
+    public void update(Vehicle vehicle) {
+        UPDATE.run(() -> {
+            String sql = "UPDATE vehicles SET color = ? WHERE id = ?";
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                pstmt.setString(1, vehicle.getColor());
+                Ids.bind(pstmt, 2, vehicle.getId());
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating vehicle color", e);
+            } finally {
+                invalidate(vehicle.getId());
+            }
+        });
+    }
+
+    public void delete(String id) {
+        DELETE.run(() -> {
+            String sql = "DELETE FROM vehicles WHERE id = ?";
+            try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+                Ids.bind(pstmt, 1, id);
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting vehicle", e);
+            } finally {
+                invalidate(id);
+            }
+        });
+    }
+
+    private Optional<Vehicle> findVehicle(String sql, String key, String errorMessage) {
+        long stamp = cache == null ? 0 : cache.stamp();
+        try (PreparedStatement pstmt = TracedStatement.prepare(connection, sql)) {
+            Ids.bind(pstmt, 1, key);
             try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    vehicles.add(mapRowToVehicle(rs));
+                if (rs.next()) {
+                    VehicleRow row = mapRowToVehicle(rs);
+                    Vehicle vehicle = row.toVehicle();
+                    if (cache != null) {
+                        cache.put(row, stamp);
+                    }
+                    return Optional.of(vehicle);
                 }
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error fetching vehicles for owner: " + ownerId, e);
+            throw new RuntimeException(errorMessage, e);
         }
-        return vehicles;
+        return Optional.empty();
     }
 
-    public void update(Vehicle vehicle) {
-        String sql = "UPDATE vehicles SET color = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, vehicle.getColor());
-            pstmt.setString(2, vehicle.getId());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating vehicle color", e);
+    private void invalidate(String id) {
+        if (cache != null) {
+            cache.invalidate(id);
         }
     }
 
-    public void delete(String id) {
-        String sql = "DELETE FROM vehicles WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting vehicle", e);
+    private void mapVehicleToStatement(PreparedStatement pstmt, Vehicle vehicle) throws SQLException {
+        Ids.bind(pstmt, 1, vehicle.getId());
+        Ids.bind(pstmt, 2, vehicle.getOwnerId());
+        pstmt.setString(3, vehicle.getBrand());
+        pstmt.setString(4, vehicle.getModel());
+        pstmt.setString(5, vehicle.getVin());
+        pstmt.setString(6, vehicle.getColor());
+        pstmt.setString(7, vehicle.getCreatedAt().toString());
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException ex) {
+            System.err.println("Failed to rollback transaction " + ex.getMessage());
+        }
+    }
+
+    private void resetAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException ex) {
+            System.err.println("Failed to reset auto-commit to true " + ex.getMessage());
         }
     }
 
-    private Vehicle mapRowToVehicle(ResultSet rs) throws SQLException {
-        return new Vehicle(
-                rs.getString("id"),
-                rs.getString("ownerId"),
+    private VehicleRow mapRowToVehicle(ResultSet rs) throws SQLException {
+        String createdAt = rs.getString("createdAt");
+        return new VehicleRow(
+                Ids.read(rs, "id"),
+                Ids.read(rs, "ownerId"),
                 rs.getString("brand"),
                 rs.getString("model"),
                 rs.getString("vin"),
-                rs.getString("color")
+                rs.getString("color"),
+                createdAt == null ? LocalDateTime.now() : LocalDateTime.parse(createdAt)
         );
     }
 }
@@ -0,0 +1,12 @@
+package pl.sobczak.grzegorz.dao;
+
+import pl.sobczak.grzegorz.model.Vehicle;
+
+import java.time.LocalDateTime;
+
+record VehicleRow(String id, String ownerId, String brand, String model, String vin, String color, LocalDateTime createdAt) {
+
+    Vehicle toVehicle() {
+        return new Vehicle(id, ownerId, brand, model, vin, color, createdAt);
+    }
+}
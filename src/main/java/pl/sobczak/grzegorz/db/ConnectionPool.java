@@ -0,0 +1,322 @@
+package pl.sobczak.grzegorz.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConnectionPool implements AutoCloseable {
+    private static final long VALIDATION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    public record PoolStats(int total, int idle, int active, long created, long destroyed,
+                            long borrowed, long borrowTimeouts, long validationFailures,
+                            long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+    }
+
+    private record PhysicalConnection(Connection connection, StatementCache statements) {
+    }
+
+    private record IdleConnection(PhysicalConnection physical, long idleSince) {
+    }
+
+    private final ConnectionFactory factory;
+    private final PoolConfig config;
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+    private volatile boolean closed;
+
+    private ConnectionPool(ConnectionFactory factory, PoolConfig config) {
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize(), true);
+
+        if (config.idleTimeout().isZero()) {
+            this.evictor = null;
+        } else {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "connection-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public static ConnectionPool start(ConnectionFactory factory, PoolConfig config) {
+        ConnectionPool pool = new ConnectionPool(factory, config);
+        pool.fillToMinIdle();
+        if (pool.evictor != null) {
+            long period = Math.max(1, config.idleTimeout().toMillis() / 2);
+            pool.evictor.scheduleAtFixedRate(pool::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        }
+        return pool;
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(config.borrowTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        if (!acquired) {
+            borrowTimeouts.incrementAndGet();
+            throw new SQLTimeoutException("Timed out waiting for a database connection after "
+                    + config.borrowTimeout().toMillis() + " ms");
+        }
+
+        try {
+            PhysicalConnection physical = takeValidIdle();
+            if (physical == null) {
+                physical = createPhysical();
+            }
+            borrowed.incrementAndGet();
+            active.incrementAndGet();
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public PoolStats stats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new PoolStats(total.get(), idleCount, active.get(), created.get(), destroyed.get(),
+                borrowed.get(), borrowTimeouts.get(), validationFailures.get(),
+                statementCounters.hits(), statementCounters.misses(), statementCounters.evictions());
+    }
+
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long timeout = config.idleTimeout().toNanos();
+
+        synchronized (idle) {
+            Iterator<IdleConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && idle.size() > config.minIdle()) {
+                IdleConnection candidate = oldestFirst.next();
+                if (now - candidate.idleSince() >= timeout) {
+                    oldestFirst.remove();
+                    destroy(candidate.physical());
+                }
+            }
+        }
+        fillToMinIdle();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        synchronized (idle) {
+            for (IdleConnection connection : idle) {
+                destroy(connection.physical());
+            }
+            idle.clear();
+        }
+    }
+
+    private void fillToMinIdle() {
+        while (!closed) {
+            synchronized (idle) {
+                if (idle.size() >= config.minIdle()) {
+                    return;
+                }
+            }
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            try {
+                PhysicalConnection physical = createPhysical();
+                synchronized (idle) {
+                    if (closed) {
+                        destroy(physical);
+                        return;
+                    }
+                    idle.addLast(new IdleConnection(physical, System.nanoTime()));
+                }
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Failed to open idle pooled connection " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private PhysicalConnection takeValidIdle() {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+
+            long idleFor = System.nanoTime() - candidate.idleSince();
+            if (!config.idleTimeout().isZero() && idleFor >= config.idleTimeout().toNanos()) {
+                destroy(candidate.physical());
+                continue;
+            }
+            if (idleFor >= VALIDATION_INTERVAL_NANOS && !isValid(candidate.physical().connection())) {
+                validationFailures.incrementAndGet();
+                destroy(candidate.physical());
+                continue;
+            }
+            return candidate.physical();
+        }
+    }
+
+    private PhysicalConnection createPhysical() throws SQLException {
+        Connection connection = factory.create();
+        StatementCache statements = config.statementCacheSize() == 0
+                ? null
+                : new StatementCache(connection, config.statementCacheSize(), statementCounters);
+        total.incrementAndGet();
+        created.incrementAndGet();
+        return new PhysicalConnection(connection, statements);
+    }
+
+    private boolean isValid(Connection physical) {
+        if (config.validationQuery() == null || config.validationQuery().isBlank()) {
+            return true;
+        }
+        try (Statement stmt = physical.createStatement()) {
+            stmt.execute(config.validationQuery());
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PhysicalConnection physical) {
+        active.decrementAndGet();
+        try {
+            if (closed || !resetState(physical.connection())) {
+                destroy(physical);
+                return;
+            }
+            synchronized (idle) {
+                if (closed) {
+                    destroy(physical);
+                    return;
+                }
+                idle.addFirst(new IdleConnection(physical, System.nanoTime()));
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean resetState(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Failed to reset pooled connection " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void destroy(PhysicalConnection physical) {
+        total.decrementAndGet();
+        destroyed.incrementAndGet();
+        if (physical.statements() != null) {
+            physical.statements().close();
+        }
+        try {
+            physical.connection().close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close pooled connection " + e.getMessage());
+        }
+    }
+
+    private Connection wrap(PhysicalConnection physical) {
+        Connection connection = physical.connection();
+        StatementCache statements = physical.statements();
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (released.compareAndSet(false, true)) {
+                                release(physical);
+                            }
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            if (released.get()) {
+                                return true;
+                            }
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "PooledConnection[" + connection + "]";
+                        }
+                        default -> {
+                            if (released.get()) {
+                                throw new SQLException("Connection has already been returned to the pool");
+                            }
+                            if (statements != null && method.getName().equals("prepareStatement") && args.length == 1) {
+                                return statements.prepare((String) args[0]);
+                            }
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,77 @@
+package pl.sobczak.grzegorz.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+public class DatabaseConfig {
+    public static final String CONFIG_FILE_PROPERTY = "garage.config";
+    private static final String DEFAULT_CONFIG_FILE = "garage.properties";
+
+    private final Properties properties;
+
+    public DatabaseConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static DatabaseConfig load() {
+        Properties properties = new Properties();
+
+        try (InputStream in = DatabaseConfig.class.getClassLoader().getResourceAsStream(DEFAULT_CONFIG_FILE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + DEFAULT_CONFIG_FILE + " from classpath", e);
+        }
+
+        Path file = Path.of(System.getProperty(CONFIG_FILE_PROPERTY, DEFAULT_CONFIG_FILE));
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not read database configuration from " + file, e);
+            }
+        }
+
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("garage.")) {
+                properties.setProperty(name, System.getProperty(name));
+            }
+        }
+        return new DatabaseConfig(properties);
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + key + ": " + value);
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + key + ": " + value);
+        }
+    }
+}
@@ -1,70 +1,113 @@
 package pl.sobczak.grzegorz.db;
 
+import pl.sobczak.grzegorz.dao.UserCache;
+import pl.sobczak.grzegorz.dao.VehicleCache;
+import pl.sobczak.grzegorz.metrics.MetricsRegistry;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:sqlite:garage.db";
+    private static final String DEFAULT_URL = "jdbc:sqlite:garage.db";
+
+    private static volatile ConnectionPool pool;
+    private static volatile UserCache userCache;
+    private static volatile VehicleCache vehicleCache;
+    private static volatile String url = DEFAULT_URL;
+    private static volatile StorageProfile storageProfile = StorageProfile.BALANCED;
 
     public static Connection getConnection() throws SQLException {
-        Connection conn =  DriverManager.getConnection(URL);
+        return getPool().borrow();
+    }
+
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    DatabaseConfig config = DatabaseConfig.load();
+                    url = config.getString("garage.db.url", DEFAULT_URL);
+                    storageProfile = StorageProfile.from(config);
+                    MetricsRegistry.global().setEnabled(Boolean.parseBoolean(config.getString("garage.metrics.enabled", "true")));
+                    current = ConnectionPool.start(DatabaseConnection::openPhysicalConnection, PoolConfig.from(config));
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static UserCache getUserCache() {
+        UserCache current = userCache;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = userCache;
+                if (current == null) {
+                    DatabaseConfig config = DatabaseConfig.load();
+                    current = new UserCache(
+                            config.getInt("garage.cache.users.maxSize", 10_000),
+                            Duration.ofMillis(config.getLong("garage.cache.users.ttlMs", 60_000)));
+                    userCache = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static VehicleCache getVehicleCache() {
+        VehicleCache current = vehicleCache;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = vehicleCache;
+                if (current == null) {
+                    current = new VehicleCache(DatabaseConfig.load().getInt("garage.cache.vehicles.maxSize", 1_000));
+                    vehicleCache = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static StorageProfile getStorageProfile() {
+        getPool();
+        return storageProfile;
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+        userCache = null;
+        vehicleCache = null;
+    }
+
+    static Connection openPhysicalConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
 
         try (Statement stmt = conn.createStatement()) {
             stmt.execute("PRAGMA foreign_keys = ON;");
+            storageProfile.apply(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
         }
         return conn;
     }
 
     public static void initDatabase() {
-        String sqlUsers = "CREATE TABLE IF NOT EXISTS users (" +
-                "id TEXT PRIMARY KEY, " +
-                "firstName TEXT NOT NULL, " +
-                "lastName TEXT NOT NULL, " +
-                "email TEXT UNIQUE NOT NULL, " +
-                "password TEXT NOT NULL, " +
-                "role TEXT NOT NULL, " +
-                "isActive INTEGER NOT NULL" +
-                ")";
-
-        String sqlVehicles = "CREATE TABLE IF NOT EXISTS vehicles (" +
-                "id TEXT PRIMARY KEY, " +
-                "ownerId TEXT NOT NULL, " +
-                "brand TEXT NOT NULL, " +
-                "model TEXT NOT NULL, " +
-                "vin TEXT UNIQUE NOT NULL, " +
-                "color TEXT, " +
-                "FOREIGN KEY (ownerId) REFERENCES users(id)" +
-                ")";
-
-        String sqlRepairOrders = "CREATE TABLE IF NOT EXISTS repair_orders (" +
-                "id TEXT PRIMARY KEY, " +
-                "vehicleId TEXT NOT NULL, " +
-                "description TEXT, " +
-                "cost REAL, " +
-                "status TEXT NOT NULL, " +
-                "createdAt TEXT NOT NULL, " +
-                "FOREIGN KEY (vehicleId) REFERENCES vehicles(id)" +
-                ")";
-
-        String sqlParts = "CREATE TABLE IF NOT EXISTS parts (" +
-                "id TEXT PRIMARY KEY, " +
-                "repairOrderId TEXT NOT NULL, " +
-                "partCode TEXT NOT NULL, " +
-                "name TEXT NOT NULL, " +
-                "description TEXT, " +
-                "price REAL NOT NULL, " +
-                "quantity INTEGER NOT NULL, " +
-                "FOREIGN KEY (repairOrderId) REFERENCES repair_orders(id) ON DELETE CASCADE" +
-                ")";
+        SchemaMigrator migrator = new SchemaMigrator();
 
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sqlUsers);
-            stmt.execute(sqlVehicles);
-            stmt.execute(sqlRepairOrders);
-            stmt.execute(sqlParts);
+        try (Connection conn = getConnection()) {
+            int applied = migrator.migrate(conn);
+            System.out.println("Using storage profile " + getStorageProfile());
+            if (applied > 0) {
+                System.out.println("Applied " + applied + " schema migration(s), schema version is now " + migrator.latestVersion());
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Could not initialize database tables", e);
         }
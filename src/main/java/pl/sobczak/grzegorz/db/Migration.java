@@ -0,0 +1,34 @@
+package pl.sobczak.grzegorz.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+public record Migration(int version, String description, Step step) {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    public Migration {
+        if (version < 1) {
+            throw new IllegalArgumentException("Migration version must be positive");
+        }
+        if (description == null || description.isBlank()) {
+            throw new IllegalArgumentException("Migration description cannot be empty");
+        }
+    }
+
+    public static Migration sql(int version, String description, String... statements) {
+        List<String> sql = List.of(statements);
+        return new Migration(version, description, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String statement : sql) {
+                    stmt.execute(statement);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package pl.sobczak.grzegorz.db;
+
+import java.time.Duration;
+
+public record PoolConfig(int maxSize, int minIdle, Duration borrowTimeout, Duration idleTimeout, String validationQuery,
+                         int statementCacheSize) {
+
+    public PoolConfig {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        if (minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Minimum idle must be between 0 and pool size");
+        }
+        if (borrowTimeout == null || borrowTimeout.isNegative()) {
+            throw new IllegalArgumentException("Borrow timeout cannot be negative");
+        }
+        if (idleTimeout == null || idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("Idle timeout cannot be negative");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("Statement cache size cannot be negative");
+        }
+    }
+
+    public static PoolConfig from(DatabaseConfig config) {
+        return new PoolConfig(
+                config.getInt("garage.pool.maxSize", 4),
+                config.getInt("garage.pool.minIdle", 1),
+                Duration.ofMillis(config.getLong("garage.pool.borrowTimeoutMs", 5_000)),
+                Duration.ofMillis(config.getLong("garage.pool.idleTimeoutMs", 300_000)),
+                config.getString("garage.pool.validationQuery", "SELECT 1"),
+                config.getInt("garage.pool.statementCacheSize", 64)
+        );
+    }
+}
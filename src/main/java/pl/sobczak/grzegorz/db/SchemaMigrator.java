@@ -0,0 +1,181 @@
+package pl.sobczak.grzegorz.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+public class SchemaMigrator {
+    public static final List<Migration> MIGRATIONS = List.of(
+            Migration.sql(1, "Create base tables",
+                    "CREATE TABLE IF NOT EXISTS users (" +
+                            "id TEXT PRIMARY KEY, " +
+                            "firstName TEXT NOT NULL, " +
+                            "lastName TEXT NOT NULL, " +
+                            "email TEXT UNIQUE NOT NULL, " +
+                            "password TEXT NOT NULL, " +
+                            "role TEXT NOT NULL, " +
+                            "isActive INTEGER NOT NULL" +
+                            ")",
+                    "CREATE TABLE IF NOT EXISTS vehicles (" +
+                            "id TEXT PRIMARY KEY, " +
+                            "ownerId TEXT NOT NULL, " +
+                            "brand TEXT NOT NULL, " +
+                            "model TEXT NOT NULL, " +
+                            "vin TEXT UNIQUE NOT NULL, " +
+                            "color TEXT, " +
+                            "FOREIGN KEY (ownerId) REFERENCES users(id)" +
+                            ")",
+                    "CREATE TABLE IF NOT EXISTS repair_orders (" +
+                            "id TEXT PRIMARY KEY, " +
+                            "vehicleId TEXT NOT NULL, " +
+                            "description TEXT, " +
+                            "cost REAL, " +
+                            "status TEXT NOT NULL, " +
+                            "createdAt TEXT NOT NULL, " +
+                            "FOREIGN KEY (vehicleId) REFERENCES vehicles(id)" +
+                            ")",
+                    "CREATE TABLE IF NOT EXISTS parts (" +
+                            "id TEXT PRIMARY KEY, " +
+                            "repairOrderId TEXT NOT NULL, " +
+                            "partCode TEXT NOT NULL, " +
+                            "name TEXT NOT NULL, " +
+                            "description TEXT, " +
+                            "price REAL NOT NULL, " +
+                            "quantity INTEGER NOT NULL, " +
+                            "FOREIGN KEY (repairOrderId) REFERENCES repair_orders(id) ON DELETE CASCADE" +
+                            ")"),
+            Migration.sql(2, "Index foreign keys and order status",
+                    "CREATE INDEX IF NOT EXISTS idx_vehicles_owner ON vehicles(ownerId)",
+                    "CREATE INDEX IF NOT EXISTS idx_repair_orders_vehicle ON repair_orders(vehicleId)",
+                    "CREATE INDEX IF NOT EXISTS idx_repair_orders_status ON repair_orders(status)",
+                    "CREATE INDEX IF NOT EXISTS idx_parts_repair_order ON parts(repairOrderId)"),
+            Migration.sql(3, "Keyset pagination indexes on creation date",
+                    "ALTER TABLE vehicles ADD COLUMN createdAt TEXT",
+                    "UPDATE vehicles SET createdAt = strftime('%Y-%m-%dT%H:%M:%f', 'now') WHERE createdAt IS NULL",
+                    "CREATE INDEX IF NOT EXISTS idx_vehicles_owner_created ON vehicles(ownerId, createdAt, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_repair_orders_vehicle_created ON repair_orders(vehicleId, createdAt, id)",
+                    "DROP INDEX IF EXISTS idx_vehicles_owner",
+                    "DROP INDEX IF EXISTS idx_repair_orders_vehicle"),
+            Migration.sql(4, "Store UUID identifiers as 16-byte blobs",
+                    "PRAGMA defer_foreign_keys = ON",
+                    toBinaryUuid("users", "id"),
+                    toBinaryUuid("vehicles", "id"),
+                    toBinaryUuid("vehicles", "ownerId"),
+                    toBinaryUuid("repair_orders", "id"),
+                    toBinaryUuid("repair_orders", "vehicleId"),
+                    toBinaryUuid("parts", "id"),
+                    toBinaryUuid("parts", "repairOrderId")),
+            Migration.sql(5, "Store money amounts as integer grosze",
+                    "ALTER TABLE repair_orders ADD COLUMN costGrosze INTEGER",
+                    "UPDATE repair_orders SET costGrosze = CAST(round(cost * 100) AS INTEGER) WHERE cost IS NOT NULL",
+                    "ALTER TABLE repair_orders DROP COLUMN cost",
+                    "ALTER TABLE repair_orders RENAME COLUMN costGrosze TO cost",
+                    "ALTER TABLE parts ADD COLUMN priceGrosze INTEGER NOT NULL DEFAULT 0",
+                    "UPDATE parts SET priceGrosze = CAST(round(price * 100) AS INTEGER)",
+                    "ALTER TABLE parts DROP COLUMN price",
+                    "ALTER TABLE parts RENAME COLUMN priceGrosze TO price"),
+            Migration.sql(6, "Denormalized order totals for revenue reports",
+                    "ALTER TABLE repair_orders ADD COLUMN partsTotal INTEGER NOT NULL DEFAULT 0",
+                    "ALTER TABLE repair_orders ADD COLUMN totalCost INTEGER NOT NULL DEFAULT 0",
+                    "UPDATE repair_orders SET partsTotal = COALESCE(" +
+                            "(SELECT SUM(p.price * p.quantity) FROM parts p WHERE p.repairOrderId = repair_orders.id), 0)",
+                    "UPDATE repair_orders SET totalCost = COALESCE(cost, 0) + partsTotal",
+                    "CREATE TRIGGER IF NOT EXISTS trg_repair_orders_total_insert AFTER INSERT ON repair_orders " +
+                            "WHEN NEW.totalCost IS NOT COALESCE(NEW.cost, 0) + NEW.partsTotal BEGIN " +
+                            "UPDATE repair_orders SET totalCost = COALESCE(NEW.cost, 0) + NEW.partsTotal WHERE id = NEW.id; " +
+                            "END",
+                    "CREATE TRIGGER IF NOT EXISTS trg_repair_orders_total_update AFTER UPDATE OF cost ON repair_orders " +
+                            "WHEN NEW.cost IS NOT OLD.cost BEGIN " +
+                            "UPDATE repair_orders SET totalCost = COALESCE(NEW.cost, 0) + NEW.partsTotal WHERE id = NEW.id; " +
+                            "END",
+                    "CREATE TRIGGER IF NOT EXISTS trg_parts_total_insert AFTER INSERT ON parts BEGIN " +
+                            "UPDATE repair_orders SET partsTotal = partsTotal + NEW.price * NEW.quantity, " +
+                            "totalCost = totalCost + NEW.price * NEW.quantity WHERE id = NEW.repairOrderId; " +
+                            "END",
+                    "CREATE TRIGGER IF NOT EXISTS trg_parts_total_delete AFTER DELETE ON parts BEGIN " +
+                            "UPDATE repair_orders SET partsTotal = partsTotal - OLD.price * OLD.quantity, " +
+                            "totalCost = totalCost - OLD.price * OLD.quantity WHERE id = OLD.repairOrderId; " +
+                            "END",
+                    "CREATE TRIGGER IF NOT EXISTS trg_parts_total_update AFTER UPDATE OF repairOrderId, price, quantity ON parts BEGIN " +
+                            "UPDATE repair_orders SET partsTotal = partsTotal - OLD.price * OLD.quantity, " +
+                            "totalCost = totalCost - OLD.price * OLD.quantity WHERE id = OLD.repairOrderId; " +
+                            "UPDATE repair_orders SET partsTotal = partsTotal + NEW.price * NEW.quantity, " +
+                            "totalCost = totalCost + NEW.price * NEW.quantity WHERE id = NEW.repairOrderId; " +
+                            "END",
+                    "CREATE INDEX IF NOT EXISTS idx_repair_orders_created_total ON repair_orders(createdAt, totalCost)",
+                    "CREATE INDEX IF NOT EXISTS idx_repair_orders_status_created_total ON repair_orders(status, createdAt, totalCost)",
+                    "CREATE INDEX IF NOT EXISTS idx_repair_orders_vehicle_created_total ON repair_orders(vehicleId, createdAt, id, totalCost)",
+                    "DROP INDEX IF EXISTS idx_repair_orders_vehicle_created",
+                    "DROP INDEX IF EXISTS idx_repair_orders_status")
+    );
+
+    private final List<Migration> migrations;
+
+    public SchemaMigrator() {
+        this(MIGRATIONS);
+    }
+
+    public SchemaMigrator(List<Migration> migrations) {
+        for (int i = 0; i < migrations.size(); i++) {
+            if (migrations.get(i).version() != i + 1) {
+                throw new IllegalArgumentException("Migrations must be numbered consecutively from 1");
+            }
+        }
+        this.migrations = List.copyOf(migrations);
+    }
+
+    public int latestVersion() {
+        return migrations.size();
+    }
+
+    public int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    public int migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+        if (current > latestVersion()) {
+            throw new IllegalStateException("Database schema version " + current +
+                    " is newer than the supported version " + latestVersion());
+        }
+
+        int applied = 0;
+        for (Migration migration : migrations.subList(current, migrations.size())) {
+            apply(conn, migration);
+            applied++;
+        }
+        return applied;
+    }
+
+    private static String toBinaryUuid(String table, String column) {
+        return "UPDATE " + table + " SET " + column + " = unhex(replace(" + column + ", '-', '')) " +
+                "WHERE typeof(" + column + ") = 'text' AND " + column + " GLOB '" + uuidTextPattern() + "'";
+    }
+
+    private static String uuidTextPattern() {
+        String hex = "[0-9a-f]";
+        return hex.repeat(8) + "-" + hex.repeat(4) + "-" + hex.repeat(4) + "-" + hex.repeat(4) + "-" + hex.repeat(12);
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            conn.setAutoCommit(false);
+            migration.step().apply(conn);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA user_version = " + migration.version());
+            }
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.version() + " (" + migration.description() + ") failed", e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package pl.sobczak.grzegorz.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StatementCache {
+
+    public static final class Counters {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+
+        public long hits() { return hits.get(); }
+        public long misses() { return misses.get(); }
+        public long evictions() { return evictions.get(); }
+
+        public double hitRatio() {
+            long total = hits() + misses();
+            return total == 0 ? 0.0 : (double) hits() / total;
+        }
+    }
+
+    private final Connection connection;
+    private final int capacity;
+    private final Counters counters;
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    public StatementCache(Connection connection, int capacity, Counters counters) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Statement cache capacity must be at least 1");
+        }
+        this.connection = connection;
+        this.capacity = capacity;
+        this.counters = counters;
+    }
+
+    public synchronized PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            counters.hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.handle;
+        }
+
+        counters.misses.incrementAndGet();
+        PreparedStatement physical = connection.prepareStatement(sql);
+        if (cached != null) {
+            return physical;
+        }
+
+        CachedStatement entry = new CachedStatement(physical);
+        statements.put(sql, entry);
+        evictOverCapacity();
+        return entry.handle;
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public synchronized void close() {
+        for (CachedStatement entry : statements.values()) {
+            closeQuietly(entry.physical);
+        }
+        statements.clear();
+    }
+
+    private void evictOverCapacity() {
+        Iterator<Map.Entry<String, CachedStatement>> eldestFirst = statements.entrySet().iterator();
+        while (statements.size() > capacity && eldestFirst.hasNext()) {
+            CachedStatement entry = eldestFirst.next().getValue();
+            if (!entry.inUse) {
+                eldestFirst.remove();
+                closeQuietly(entry.physical);
+                counters.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private synchronized void release(CachedStatement entry) {
+        try {
+            entry.physical.clearParameters();
+            entry.physical.clearBatch();
+        } catch (SQLException e) {
+            statements.values().remove(entry);
+            closeQuietly(entry.physical);
+        } finally {
+            entry.inUse = false;
+        }
+    }
+
+    private void closeQuietly(PreparedStatement physical) {
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close cached statement " + e.getMessage());
+        }
+    }
+
+    private final class CachedStatement {
+        private final PreparedStatement physical;
+        private final PreparedStatement handle;
+        private boolean inUse = true;
+
+        private CachedStatement(PreparedStatement physical) {
+            this.physical = physical;
+            this.handle = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close" -> {
+                                if (inUse) {
+                                    release(this);
+                                }
+                                return null;
+                            }
+                            case "isClosed" -> {
+                                if (!inUse) {
+                                    return true;
+                                }
+                            }
+                            case "equals" -> {
+                                return proxy == args[0];
+                            }
+                            case "hashCode" -> {
+                                return System.identityHashCode(proxy);
+                            }
+                            case "toString" -> {
+                                return "CachedStatement[" + physical + "]";
+                            }
+                            default -> {
+                                if (!inUse) {
+                                    throw new SQLException("Statement has already been returned to the cache");
+                                }
+                            }
+                        }
+                        try {
+                            return method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
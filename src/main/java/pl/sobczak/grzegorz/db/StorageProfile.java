@@ -0,0 +1,71 @@
+package pl.sobczak.grzegorz.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+public enum StorageProfile {
+    DURABLE("FULL", -8_000, 0L, "DEFAULT", 10_000),
+    BALANCED("NORMAL", -16_000, 64L * 1024 * 1024, "MEMORY", 5_000),
+    THROUGHPUT("OFF", -64_000, 256L * 1024 * 1024, "MEMORY", 2_000);
+
+    private static final String JOURNAL_MODE = "WAL";
+
+    private final String synchronous;
+    private final int cacheSize;
+    private final long mmapSize;
+    private final String tempStore;
+    private final int busyTimeoutMs;
+
+    StorageProfile(String synchronous, int cacheSize, long mmapSize, String tempStore, int busyTimeoutMs) {
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    public static StorageProfile fromName(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Storage profile cannot be empty");
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown storage profile: " + name);
+        }
+    }
+
+    public static StorageProfile from(DatabaseConfig config) {
+        return fromName(config.getString("garage.storage.profile", BALANCED.name()));
+    }
+
+    public void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            stmt.execute("PRAGMA journal_mode = " + JOURNAL_MODE);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    public String getSynchronous() { return synchronous; }
+    public int getCacheSize() { return cacheSize; }
+    public long getMmapSize() { return mmapSize; }
+    public String getTempStore() { return tempStore; }
+    public int getBusyTimeoutMs() { return busyTimeoutMs; }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT) +
+                " (journal_mode=" + JOURNAL_MODE +
+                ", synchronous=" + synchronous +
+                ", cache_size=" + cacheSize +
+                ", mmap_size=" + mmapSize +
+                ", temp_store=" + tempStore +
+                ", busy_timeout=" + busyTimeoutMs + "ms)";
+    }
+}
@@ -0,0 +1,247 @@
+package pl.sobczak.grzegorz.importer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class CsvImporter {
+    public static final int MAX_REJECT_SAMPLES = 20;
+
+    private record ParsedBatch<T>(List<T> items, List<Long> itemRows, long firstRow, long lastRow, long endOffset,
+                                  int rows, int rejected, List<String> rejects) {
+    }
+
+    private final ImportOptions options;
+
+    public CsvImporter(ImportOptions options) {
+        this.options = options;
+    }
+
+    public <T> ImportReport importFile(Path csv, ImportTarget<T> target) throws IOException {
+        return importFile(csv, target, ImportCheckpoint.defaultLocation(csv), report -> { });
+    }
+
+    public <T> ImportReport importFile(Path csv, ImportTarget<T> target, Path checkpointFile,
+                                       Consumer<ImportReport> progress) throws IOException {
+        long started = System.nanoTime();
+        String source = csv.toAbsolutePath().normalize().toString();
+        ExecutorService parsers = newParserPool();
+
+        try (CsvRecordReader reader = new CsvRecordReader(csv, options.bufferSize())) {
+            CsvRecordReader.RawRecord header = reader.next();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file " + csv + " is empty");
+            }
+            Map<String, Integer> columns = readHeader(header, target);
+
+            long rowNumber = 0;
+            Optional<ImportCheckpoint> checkpoint = ImportCheckpoint.load(checkpointFile);
+            if (checkpoint.isPresent()) {
+                ImportCheckpoint saved = checkpoint.get();
+                if (!source.equals(saved.source())) {
+                    throw new IllegalStateException("Checkpoint " + checkpointFile + " belongs to " + saved.source());
+                }
+                if (saved.offset() < reader.offset() || saved.offset() > Files.size(csv)) {
+                    throw new IllegalStateException("Checkpoint " + checkpointFile + " does not match " + csv);
+                }
+                reader.seek(saved.offset());
+                rowNumber = saved.rows();
+            }
+            long resumedFrom = rowNumber;
+
+            long rowsRead = 0;
+            long imported = 0;
+            long duplicates = 0;
+            long rejected = 0;
+            List<String> rejectSamples = new ArrayList<>();
+            Deque<Future<ParsedBatch<T>>> inFlight = new ArrayDeque<>();
+            boolean exhausted = false;
+
+            while (!exhausted || !inFlight.isEmpty()) {
+                if (!exhausted && inFlight.size() < options.maxInFlightBatches()) {
+                    List<CsvRecordReader.RawRecord> records = readBatch(reader);
+                    exhausted = records.size() < options.batchSize();
+                    if (!records.isEmpty()) {
+                        long firstRow = rowNumber + 1;
+                        rowNumber += records.size();
+                        inFlight.addLast(parsers.submit(() -> parse(records, firstRow, columns, target)));
+                    }
+                    continue;
+                }
+
+                ParsedBatch<T> batch = rejectOrphans(await(inFlight.removeFirst()), target);
+                int inserted;
+                try {
+                    inserted = batch.items().isEmpty() ? 0 : target.writer().applyAsInt(batch.items());
+                } catch (RuntimeException e) {
+                    throw new RuntimeException("Import of " + target.name() + " failed at rows " + batch.firstRow() + "-"
+                            + batch.lastRow() + ", resume from checkpoint " + checkpointFile, e);
+                }
+                new ImportCheckpoint(source, batch.endOffset(), batch.lastRow()).save(checkpointFile);
+
+                rowsRead += batch.rows();
+                imported += inserted;
+                duplicates += batch.items().size() - inserted;
+                rejected += batch.rejected();
+                for (String reject : batch.rejects()) {
+                    if (rejectSamples.size() < MAX_REJECT_SAMPLES) {
+                        rejectSamples.add(reject);
+                    }
+                }
+                progress.accept(new ImportReport(target.name(), resumedFrom, rowsRead, imported, duplicates, rejected,
+                        List.copyOf(rejectSamples), Duration.ofNanos(System.nanoTime() - started)));
+            }
+
+            Files.deleteIfExists(checkpointFile);
+            return new ImportReport(target.name(), resumedFrom, rowsRead, imported, duplicates, rejected,
+                    List.copyOf(rejectSamples), Duration.ofNanos(System.nanoTime() - started));
+        } finally {
+            parsers.shutdownNow();
+        }
+    }
+
+    private ExecutorService newParserPool() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(options.parallelism(), r -> {
+            Thread thread = new Thread(r, "csv-import-parser-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private List<CsvRecordReader.RawRecord> readBatch(CsvRecordReader reader) throws IOException {
+        List<CsvRecordReader.RawRecord> records = new ArrayList<>(options.batchSize());
+        CsvRecordReader.RawRecord record;
+        while (records.size() < options.batchSize() && (record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    private Map<String, Integer> readHeader(CsvRecordReader.RawRecord header, ImportTarget<?> target) {
+        String line = new String(header.bytes(), StandardCharsets.UTF_8);
+        if (line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvRow.parseFields(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+
+        List<String> missing = target.requiredColumns().stream()
+                .filter(column -> !columns.containsKey(column))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns for " + target.name() + ": " + missing);
+        }
+        return Map.copyOf(columns);
+    }
+
+    private <T> ParsedBatch<T> parse(List<CsvRecordReader.RawRecord> records, long firstRow,
+                                     Map<String, Integer> columns, ImportTarget<T> target) {
+        List<T> items = new ArrayList<>(records.size());
+        List<Long> itemRows = new ArrayList<>(records.size());
+        List<String> rejects = new ArrayList<>();
+        int rows = 0;
+        int rejected = 0;
+
+        for (int i = 0; i < records.size(); i++) {
+            byte[] bytes = records.get(i).bytes();
+            if (bytes.length == 0) {
+                continue;
+            }
+            rows++;
+            long number = firstRow + i;
+            try {
+                List<String> values = CsvRow.parseFields(new String(bytes, StandardCharsets.UTF_8));
+                if (values.size() != columns.size()) {
+                    throw new IllegalArgumentException("Expected " + columns.size() + " columns but found " + values.size());
+                }
+                items.add(target.mapper().apply(new CsvRow(number, columns, values)));
+                itemRows.add(number);
+            } catch (IllegalArgumentException | DateTimeException e) {
+                rejected++;
+                if (rejects.size() < MAX_REJECT_SAMPLES) {
+                    rejects.add("row " + number + ": " + e.getMessage());
+                }
+            }
+        }
+
+        long lastRow = firstRow + records.size() - 1;
+        return new ParsedBatch<>(items, itemRows, firstRow, lastRow, records.getLast().endOffset(), rows, rejected,
+                rejects);
+    }
+
+    private <T> ParsedBatch<T> rejectOrphans(ParsedBatch<T> batch, ImportTarget<T> target) {
+        ImportTarget.ParentCheck<T> parents = target.parents();
+        if (parents == null || batch.items().isEmpty()) {
+            return batch;
+        }
+
+        Set<String> parentIds = new HashSet<>();
+        for (T item : batch.items()) {
+            String parentId = parents.parentId().apply(item);
+            if (parentId != null) {
+                parentIds.add(parentId);
+            }
+        }
+        Set<String> existing = parents.existingIds().apply(parentIds);
+        if (existing.size() == parentIds.size()) {
+            return batch;
+        }
+
+        List<T> items = new ArrayList<>(batch.items().size());
+        List<Long> itemRows = new ArrayList<>(batch.items().size());
+        List<String> rejects = new ArrayList<>(batch.rejects());
+        int rejected = batch.rejected();
+        for (int i = 0; i < batch.items().size(); i++) {
+            T item = batch.items().get(i);
+            String parentId = parents.parentId().apply(item);
+            if (parentId != null && existing.contains(parentId)) {
+                items.add(item);
+                itemRows.add(batch.itemRows().get(i));
+                continue;
+            }
+            rejected++;
+            if (rejects.size() < MAX_REJECT_SAMPLES) {
+                rejects.add("row " + batch.itemRows().get(i) + ": " + parents.parentName() + " " + parentId + " does not exist");
+            }
+        }
+        return new ParsedBatch<>(items, itemRows, batch.firstRow(), batch.lastRow(), batch.endOffset(), batch.rows(),
+                rejected, rejects);
+    }
+
+    private <T> ParsedBatch<T> await(Future<ParsedBatch<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Error parsing CSV batch", e.getCause());
+        }
+    }
+}
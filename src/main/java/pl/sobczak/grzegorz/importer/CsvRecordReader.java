@@ -0,0 +1,86 @@
+package pl.sobczak.grzegorz.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+final class CsvRecordReader implements AutoCloseable {
+    static final int MAX_RECORD_BYTES = 1 << 20;
+
+    record RawRecord(byte[] bytes, long endOffset) {
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long offset;
+    private byte[] record = new byte[256];
+    private int length;
+
+    CsvRecordReader(Path file, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    void seek(long newOffset) throws IOException {
+        channel.position(newOffset);
+        buffer.clear().flip();
+        offset = newOffset;
+    }
+
+    long offset() {
+        return offset;
+    }
+
+    RawRecord next() throws IOException {
+        length = 0;
+        boolean quoted = false;
+        boolean started = false;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read <= 0) {
+                    return started ? finish() : null;
+                }
+            }
+
+            byte b = buffer.get();
+            offset++;
+            started = true;
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                return finish();
+            }
+            append(b);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void append(byte b) throws IOException {
+        if (length == record.length) {
+            if (length >= MAX_RECORD_BYTES) {
+                throw new IOException("CSV record at offset " + (offset - length) + " exceeds " + MAX_RECORD_BYTES + " bytes");
+            }
+            record = Arrays.copyOf(record, Math.min(length * 2, MAX_RECORD_BYTES));
+        }
+        record[length++] = b;
+    }
+
+    private RawRecord finish() {
+        int end = length;
+        if (end > 0 && record[end - 1] == '\r') {
+            end--;
+        }
+        return new RawRecord(Arrays.copyOf(record, end), offset);
+    }
+}
@@ -0,0 +1,72 @@
+package pl.sobczak.grzegorz.importer;
+
+import pl.sobczak.grzegorz.model.Money;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public record CsvRow(long number, Map<String, Integer> columns, List<String> values) {
+
+    public String get(String column) {
+        Integer index = columns.get(column);
+        return index == null ? null : values.get(index);
+    }
+
+    public String getOrDefault(String column, String defaultValue) {
+        String value = get(column);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    public Money getMoney(String column) {
+        return Money.parse(require(column));
+    }
+
+    public int getInt(String column) {
+        return Integer.parseInt(require(column));
+    }
+
+    public LocalDateTime getDateTime(String column) {
+        String value = get(column);
+        return value == null || value.isBlank() ? LocalDateTime.now() : LocalDateTime.parse(value.trim());
+    }
+
+    private String require(String column) {
+        String value = get(column);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(column + " cannot be empty");
+        }
+        return value.trim();
+    }
+
+    static List<String> parseFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
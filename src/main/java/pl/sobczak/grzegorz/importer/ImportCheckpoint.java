@@ -0,0 +1,49 @@
+package pl.sobczak.grzegorz.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+public record ImportCheckpoint(String source, long offset, long rows) {
+
+    public static Path defaultLocation(Path csv) {
+        return csv.resolveSibling(csv.getFileName() + ".checkpoint");
+    }
+
+    public static Optional<ImportCheckpoint> load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            return Optional.of(new ImportCheckpoint(
+                    properties.getProperty("source"),
+                    Long.parseLong(properties.getProperty("offset")),
+                    Long.parseLong(properties.getProperty("rows"))));
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupted import checkpoint " + file, e);
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("source", source);
+        properties.setProperty("offset", Long.toString(offset));
+        properties.setProperty("rows", Long.toString(rows));
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,78 @@
+package pl.sobczak.grzegorz.importer;
+
+import pl.sobczak.grzegorz.dao.RepairOrderDao;
+import pl.sobczak.grzegorz.dao.UserDao;
+import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.db.DatabaseConnection;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+public class ImportCommand {
+    private static final String USAGE = "Usage: ImportCommand <users|vehicles|repair-orders|parts> <file.csv> [--batch-size N] [--threads N]";
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        ImportOptions options = ImportOptions.defaults();
+        try {
+            for (int i = 2; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException(USAGE);
+                }
+                String value = args[i + 1];
+                options = switch (args[i]) {
+                    case "--batch-size" -> options.withBatchSize(Integer.parseInt(value));
+                    case "--threads" -> options.withParallelism(Integer.parseInt(value));
+                    default -> throw new IllegalArgumentException(USAGE);
+                };
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            if (!USAGE.equals(e.getMessage())) {
+                System.err.println(USAGE);
+            }
+            System.exit(2);
+        }
+
+        DatabaseConnection.initDatabase();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            Path file = Path.of(args[1]);
+            CsvImporter importer = new CsvImporter(options);
+            long[] lastPrinted = {System.nanoTime()};
+            ImportReport report = switch (args[0]) {
+                case "users" -> importer.importFile(file, ImportTarget.users(new UserDao(conn)),
+                        ImportCheckpoint.defaultLocation(file), progress -> printProgress(progress, lastPrinted));
+                case "vehicles" -> importer.importFile(file, ImportTarget.vehicles(new VehicleDao(conn), new UserDao(conn)),
+                        ImportCheckpoint.defaultLocation(file), progress -> printProgress(progress, lastPrinted));
+                case "repair-orders" -> importer.importFile(file, ImportTarget.repairOrders(new RepairOrderDao(conn), new VehicleDao(conn)),
+                        ImportCheckpoint.defaultLocation(file), progress -> printProgress(progress, lastPrinted));
+                case "parts" -> importer.importFile(file, ImportTarget.parts(new RepairOrderDao(conn)),
+                        ImportCheckpoint.defaultLocation(file), progress -> printProgress(progress, lastPrinted));
+                default -> throw new IllegalArgumentException(USAGE);
+            };
+
+            System.out.println(report);
+            report.rejectSamples().forEach(reject -> System.out.println("  rejected " + reject));
+        } catch (IllegalArgumentException | IllegalStateException | IOException | SQLException e) {
+            System.err.println("Error: " + e.getMessage());
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    private static void printProgress(ImportReport progress, long[] lastPrinted) {
+        long now = System.nanoTime();
+        if (now - lastPrinted[0] >= PROGRESS_INTERVAL_NANOS) {
+            lastPrinted[0] = now;
+            System.out.println(progress);
+        }
+    }
+}
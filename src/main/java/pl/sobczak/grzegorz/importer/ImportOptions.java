@@ -0,0 +1,34 @@
+package pl.sobczak.grzegorz.importer;
+
+public record ImportOptions(int batchSize, int parallelism, int maxInFlightBatches, int bufferSize) {
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    public ImportOptions {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (maxInFlightBatches < 1) {
+            throw new IllegalArgumentException("In-flight batch limit must be at least 1");
+        }
+        if (bufferSize < 1024) {
+            throw new IllegalArgumentException("Read buffer must be at least 1024 bytes");
+        }
+    }
+
+    public static ImportOptions defaults() {
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return new ImportOptions(DEFAULT_BATCH_SIZE, parallelism, parallelism * 2, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ImportOptions withBatchSize(int newBatchSize) {
+        return new ImportOptions(newBatchSize, parallelism, maxInFlightBatches, bufferSize);
+    }
+
+    public ImportOptions withParallelism(int newParallelism) {
+        return new ImportOptions(batchSize, newParallelism, newParallelism * 2, bufferSize);
+    }
+}
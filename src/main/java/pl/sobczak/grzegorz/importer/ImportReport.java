@@ -0,0 +1,20 @@
+package pl.sobczak.grzegorz.importer;
+
+import java.time.Duration;
+import java.util.List;
+
+public record ImportReport(String target, long resumedFromRow, long rowsRead, long imported, long duplicates,
+                           long rejected, List<String> rejectSamples, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds == 0 ? 0.0 : rowsRead / seconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: read %d rows (%d imported, %d already present, %d rejected) in %d ms, %.0f rows/s%s",
+                target, rowsRead, imported, duplicates, rejected, elapsed.toMillis(), rowsPerSecond(),
+                resumedFromRow > 0 ? ", resumed after row " + resumedFromRow : "");
+    }
+}
@@ -0,0 +1,77 @@
+package pl.sobczak.grzegorz.importer;
+
+import pl.sobczak.grzegorz.dao.RepairOrderDao;
+import pl.sobczak.grzegorz.dao.UserDao;
+import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.model.Part;
+import pl.sobczak.grzegorz.model.RepairOrder;
+import pl.sobczak.grzegorz.model.RepairStatus;
+import pl.sobczak.grzegorz.model.Role;
+import pl.sobczak.grzegorz.model.User;
+import pl.sobczak.grzegorz.model.Vehicle;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+public record ImportTarget<T>(String name, List<String> requiredColumns, Function<CsvRow, T> mapper,
+                              ToIntFunction<List<T>> writer, ParentCheck<T> parents) {
+
+    public record ParentCheck<T>(String parentName, Function<T, String> parentId,
+                                 Function<Collection<String>, Set<String>> existingIds) {
+    }
+
+    public ImportTarget(String name, List<String> requiredColumns, Function<CsvRow, T> mapper,
+                        ToIntFunction<List<T>> writer) {
+        this(name, requiredColumns, mapper, writer, null);
+    }
+
+    public static ImportTarget<User> users(UserDao userDao) {
+        return new ImportTarget<>("users",
+                List.of("id", "firstName", "lastName", "email", "password"),
+                row -> {
+                    User user = new User(row.get("id"), row.get("firstName"), row.get("lastName"),
+                            row.get("email"), row.get("password"));
+                    user.updateRole(Role.valueOf(row.getOrDefault("role", Role.USER.name()).trim().toUpperCase()));
+                    String active = row.getOrDefault("isActive", "1").trim();
+                    if (active.equals("0") || active.equalsIgnoreCase("false")) {
+                        user.deactivate();
+                    }
+                    return user;
+                },
+                users -> userDao.saveAllIfAbsent(users).size());
+    }
+
+    public static ImportTarget<Vehicle> vehicles(VehicleDao vehicleDao, UserDao userDao) {
+        return new ImportTarget<>("vehicles",
+                List.of("id", "ownerId", "brand", "model", "vin", "color"),
+                row -> new Vehicle(row.get("id"), row.get("ownerId"), row.get("brand"), row.get("model"),
+                        row.get("vin"), row.get("color"), row.getDateTime("createdAt")),
+                vehicles -> vehicleDao.saveAllIfAbsent(vehicles).size(),
+                new ParentCheck<>("owner", Vehicle::getOwnerId, userDao::findExistingIds));
+    }
+
+    public static ImportTarget<RepairOrder> repairOrders(RepairOrderDao repairOrderDao, VehicleDao vehicleDao) {
+        return new ImportTarget<>("repair-orders",
+                List.of("id", "vehicleId", "description", "cost", "status"),
+                row -> {
+                    RepairOrder order = new RepairOrder(row.get("id"), row.get("vehicleId"), row.get("description"),
+                            row.getMoney("cost"), row.getDateTime("createdAt"));
+                    order.updateStatus(RepairStatus.valueOf(row.get("status").trim().toUpperCase()));
+                    return order;
+                },
+                repairOrderDao::saveAllIfAbsent,
+                new ParentCheck<>("vehicle", RepairOrder::getVehicleId, vehicleDao::findExistingIds));
+    }
+
+    public static ImportTarget<Part> parts(RepairOrderDao repairOrderDao) {
+        return new ImportTarget<>("parts",
+                List.of("id", "repairOrderId", "partCode", "name", "price", "quantity"),
+                row -> new Part(row.get("id"), row.get("repairOrderId"), row.get("partCode"), row.get("name"),
+                        row.getOrDefault("description", ""), row.getMoney("price"), row.getInt("quantity")),
+                repairOrderDao::savePartsIfAbsent,
+                new ParentCheck<>("repair order", Part::getRepairOrderId, repairOrderDao::findExistingIds));
+    }
+}
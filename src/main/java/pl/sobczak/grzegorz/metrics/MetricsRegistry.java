@@ -0,0 +1,41 @@
+package pl.sobczak.grzegorz.metrics;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL =
+            new MetricsRegistry(Boolean.parseBoolean(System.getProperty("garage.metrics.enabled", "true")));
+
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public OperationMetrics operation(String name) {
+        return operations.computeIfAbsent(name, key -> new OperationMetrics(key, this));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(operations.values().stream()
+                .map(OperationMetrics::snapshot)
+                .filter(operation -> operation.calls() > 0)
+                .sorted(Comparator.comparing(OperationSnapshot::name))
+                .toList());
+    }
+}
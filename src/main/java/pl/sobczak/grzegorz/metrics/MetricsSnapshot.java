@@ -0,0 +1,25 @@
+package pl.sobczak.grzegorz.metrics;
+
+import java.util.List;
+import java.util.Optional;
+
+public record MetricsSnapshot(List<OperationSnapshot> operations) {
+
+    public MetricsSnapshot {
+        operations = List.copyOf(operations);
+    }
+
+    public Optional<OperationSnapshot> operation(String name) {
+        return operations.stream().filter(operation -> operation.name().equals(name)).findFirst();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format("%-50s %10s %7s %10s %10s %10s %10s %10s%n",
+                "operation", "calls", "errors", "rows", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (OperationSnapshot operation : operations) {
+            sb.append(operation).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package pl.sobczak.grzegorz.metrics;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+public class OperationMetrics {
+    private static final ThreadLocal<OperationMetrics> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final MetricsRegistry registry;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    OperationMetrics(String name, MetricsRegistry registry) {
+        this.name = name;
+        this.registry = registry;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public static String currentOperation() {
+        OperationMetrics current = CURRENT.get();
+        return current == null ? null : current.name;
+    }
+
+    public <T> T call(Supplier<T> operation) {
+        return call(operation, OperationMetrics::rowsOf);
+    }
+
+    public <T> T call(Supplier<T> operation, ToLongFunction<? super T> rowCounter) {
+        OperationMetrics outer = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            if (!registry.isEnabled()) {
+                return operation.get();
+            }
+            long start = System.nanoTime();
+            try {
+                T result = operation.get();
+                record(System.nanoTime() - start, rowCounter.applyAsLong(result), false);
+                return result;
+            } catch (RuntimeException | Error e) {
+                record(System.nanoTime() - start, 0, true);
+                throw e;
+            }
+        } finally {
+            CURRENT.set(outer);
+        }
+    }
+
+    public void run(Runnable operation) {
+        call(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    public void record(long nanos, long rowCount, boolean failed) {
+        latency.record(nanos);
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+    }
+
+    public OperationSnapshot snapshot() {
+        LatencyHistogram.Snapshot histogram = latency.snapshot();
+        return new OperationSnapshot(name, calls.sum(), errors.sum(), rows.sum(),
+                histogram.percentile(0.50), histogram.percentile(0.99), histogram.percentile(0.999),
+                histogram.max(), histogram.mean());
+    }
+
+    static long rowsOf(Object result) {
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Integer count) {
+            return Math.max(0, count);
+        }
+        return 0;
+    }
+}
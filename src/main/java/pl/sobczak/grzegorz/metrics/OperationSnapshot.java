@@ -0,0 +1,21 @@
+package pl.sobczak.grzegorz.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+public record OperationSnapshot(String name, long calls, long errors, long rows,
+                                long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos, double meanNanos) {
+
+    public double errorRatio() {
+        return calls == 0 ? 0.0 : (double) errors / calls;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-50s %,10d %,7d %,10d %10.3f %10.3f %10.3f %10.3f",
+                name, calls, errors, rows, millis(p50Nanos), millis(p99Nanos), millis(p999Nanos), millis(maxNanos));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,20 @@
+package pl.sobczak.grzegorz.model;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface IdGenerator {
+    String nextId();
+
+    static IdGenerator defaultGenerator() {
+        return TimeOrderedIdGenerator.SHARED;
+    }
+
+    static IdGenerator timeOrdered() {
+        return new TimeOrderedIdGenerator(System::currentTimeMillis);
+    }
+
+    static IdGenerator random() {
+        return () -> UUID.randomUUID().toString();
+    }
+}
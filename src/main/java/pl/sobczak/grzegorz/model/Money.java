@@ -0,0 +1,55 @@
+package pl.sobczak.grzegorz.model;
+
+import java.math.BigDecimal;
+
+public record Money(long grosze) implements Comparable<Money> {
+    public static final Money ZERO = new Money(0);
+
+    private static final int SCALE = 2;
+    private static final long GROSZE_PER_ZLOTY = 100;
+    private static final double MAX_ZLOTY = (double) Long.MAX_VALUE / GROSZE_PER_ZLOTY;
+
+    public static Money ofGrosze(long grosze) {
+        return grosze == 0 ? ZERO : new Money(grosze);
+    }
+
+    public static Money of(double amount) {
+        if (Double.isNaN(amount) || Math.abs(amount) >= MAX_ZLOTY) {
+            throw new IllegalArgumentException("Amount out of range: " + amount);
+        }
+        return ofGrosze(Math.round(amount * GROSZE_PER_ZLOTY));
+    }
+
+    public static Money parse(String amount) {
+        if (amount == null || amount.isBlank()) {
+            throw new IllegalArgumentException("Amount cannot be empty");
+        }
+        try {
+            return ofGrosze(new BigDecimal(amount.trim()).movePointRight(SCALE).longValueExact());
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+    }
+
+    public Money plus(Money other) {
+        return ofGrosze(Math.addExact(grosze, other.grosze));
+    }
+
+    public Money times(int quantity) {
+        return ofGrosze(Math.multiplyExact(grosze, quantity));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(grosze, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(grosze, other.grosze);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -1,7 +1,6 @@
 package pl.sobczak.grzegorz.model;
 
 import java.util.Objects;
-import java.util.UUID;
 
 public class Part {
     private final String id;
@@ -9,13 +8,21 @@ public class Part {
     private final String partCode;
     private final String name;
     private final String description;
-    private final double price;
+    private final Money price;
     private int quantity;
+    private RepairOrder order;
 
     public Part(String id, String repairOrderId, String partCode, String name, String description, double price, int quantity) {
+        this(id, repairOrderId, partCode, name, description, Money.of(price), quantity);
+    }
+
+    public Part(String id, String repairOrderId, String partCode, String name, String description, Money price, int quantity) {
         validateRequired(id, "ID");
         validateRequired(repairOrderId, "Repair Order ID");
         validateRequired(partCode, "Part Code");
+        if (price == null) {
+            throw new IllegalArgumentException("Price cannot be null");
+        }
 
         this.id = id;
         this.repairOrderId = repairOrderId;
@@ -27,7 +34,11 @@ public class Part {
     }
 
     public Part(String repairOrderId, String partCode, String name, double price, int quantity) {
-        this(UUID.randomUUID().toString(), repairOrderId, partCode, name, "", price, quantity);
+        this(IdGenerator.defaultGenerator(), repairOrderId, partCode, name, Money.of(price), quantity);
+    }
+
+    public Part(IdGenerator idGenerator, String repairOrderId, String partCode, String name, Money price, int quantity) {
+        this(idGenerator.nextId(), repairOrderId, partCode, name, "", price, quantity);
     }
 
     public String getId() { return id; }
@@ -35,7 +46,7 @@ public class Part {
     public String getPartCode() { return partCode; }
     public String getName() { return name; }
     public String getDescription() { return description; }
-    public double getPrice() { return price; }
+    public Money getPrice() { return price; }
     public int getQuantity() { return quantity; }
 
     private void validateRequired(String value, String fieldName) {
@@ -48,11 +59,24 @@ public class Part {
         if (quantity < 0) {
             throw new IllegalArgumentException("Quantity cannot be negative");
         }
+        if (order != null) {
+            order.onPartQuantityChanged(this, this.quantity, quantity);
+        }
         this.quantity = quantity;
     }
 
-    public double getTotalPrice() {
-        return price * quantity;
+    void attachTo(RepairOrder order) {
+        this.order = order;
+    }
+
+    void detachFrom(RepairOrder order) {
+        if (this.order == order) {
+            this.order = null;
+        }
+    }
+
+    public Money getTotalPrice() {
+        return price.times(quantity);
     }
 
     public boolean isSameProduct(Part other) {
@@ -63,7 +87,7 @@ public class Part {
     @Override
     public String toString() {
         return String.format("[%s] %s (x%d) - Jednostkowa: %.2f, Suma: %.2f PLN",
-                partCode, name, quantity, price, getTotalPrice());
+                partCode, name, quantity, price.toBigDecimal(), getTotalPrice().toBigDecimal());
     }
 
     @Override
@@ -0,0 +1,10 @@
+package pl.sobczak.grzegorz.model;
+
+import java.util.List;
+
+public record PartChanges(List<Part> added, List<Part> changed, List<String> removedIds) {
+
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removedIds.isEmpty();
+    }
+}
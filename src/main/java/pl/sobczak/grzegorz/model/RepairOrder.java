@@ -7,32 +7,44 @@ public class RepairOrder {
     private final String id;
     private final String vehicleId;
     private String description;
-    private double serviceCost;
+    private Money serviceCost;
     private RepairStatus status;
     private final LocalDateTime createdAt;
     private final List<Part> parts = new ArrayList<>();
-
+    private long partsTotal;
+    private Map<String, Integer> persistedQuantities;
 
     public RepairOrder(String id, String vehicleId, String description, double serviceCost) {
+        this(id, vehicleId, description, Money.of(serviceCost), LocalDateTime.now());
+    }
+
+    public RepairOrder(String id, String vehicleId, String description, Money serviceCost, LocalDateTime createdAt) {
         validateRequired(id, "ID");
         validateRequired(vehicleId, "Vehicle ID");
+        if (serviceCost == null) {
+            throw new IllegalArgumentException("Service cost cannot be null");
+        }
 
         this.id = id;
         this.vehicleId = vehicleId;
         this.description = description;
         this.serviceCost = serviceCost;
         this.status = RepairStatus.OPEN;
-        this.createdAt = LocalDateTime.now();
+        this.createdAt = createdAt;
     }
 
     public RepairOrder(String vehicleId, String description, double serviceCost) {
-        this(UUID.randomUUID().toString(), vehicleId, description, serviceCost);
+        this(IdGenerator.defaultGenerator(), vehicleId, description, Money.of(serviceCost));
+    }
+
+    public RepairOrder(IdGenerator idGenerator, String vehicleId, String description, Money serviceCost) {
+        this(idGenerator.nextId(), vehicleId, description, serviceCost, LocalDateTime.now());
     }
 
     public String getId() { return id; }
     public String getVehicleId() { return vehicleId; }
     public String getDescription() { return description; }
-    public double getServiceCost() { return serviceCost; }
+    public Money getServiceCost() { return serviceCost; }
     public RepairStatus getStatus() { return status; }
     public LocalDateTime getCreatedAt() { return createdAt; }
 
@@ -51,6 +63,13 @@ public class RepairOrder {
     }
 
     public void updateServiceCost(double serviceCost) {
+        updateServiceCost(Money.of(serviceCost));
+    }
+
+    public void updateServiceCost(Money serviceCost) {
+        if (serviceCost == null) {
+            throw new IllegalArgumentException("Service cost cannot be null");
+        }
         this.serviceCost = serviceCost;
     }
 
@@ -59,18 +78,87 @@ public class RepairOrder {
         if (!part.getRepairOrderId().equals(this.id)) {
             throw new IllegalArgumentException("Part belongs to a different repair order");
         }
+        long total = Math.addExact(partsTotal, lineTotal(part.getPrice(), part.getQuantity()));
         this.parts.add(part);
+        part.attachTo(this);
+        partsTotal = total;
+    }
+
+    public boolean removePart(String partId) {
+        boolean removed = false;
+        Iterator<Part> iterator = parts.iterator();
+        while (iterator.hasNext()) {
+            Part part = iterator.next();
+            if (part.getId().equals(partId)) {
+                long total = Math.subtractExact(partsTotal, lineTotal(part.getPrice(), part.getQuantity()));
+                iterator.remove();
+                part.detachFrom(this);
+                partsTotal = total;
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    void onPartQuantityChanged(Part part, int previousQuantity, int quantity) {
+        partsTotal = Math.addExact(partsTotal, lineTotal(part.getPrice(), quantity - previousQuantity));
     }
 
     public List<Part> getParts() {
         return Collections.unmodifiableList(parts);
     }
 
-    public double getTotalCost() {
-        double partsTotal = parts.stream()
-                .mapToDouble(Part::getTotalPrice)
-                .sum();
-        return serviceCost + partsTotal;
+    public void markPersisted() {
+        persistedQuantities = new HashMap<>();
+        for (Part part : parts) {
+            persistedQuantities.put(part.getId(), part.getQuantity());
+        }
+    }
+
+    public boolean isTracked() {
+        return persistedQuantities != null;
+    }
+
+    public PartChanges pendingPartChanges() {
+        if (persistedQuantities == null) {
+            throw new IllegalStateException("Repair order has not been loaded from or saved to the database");
+        }
+
+        List<Part> added = new ArrayList<>();
+        List<Part> changed = new ArrayList<>();
+        Set<String> removed = new HashSet<>(persistedQuantities.keySet());
+
+        for (Part part : parts) {
+            Integer persistedQuantity = persistedQuantities.get(part.getId());
+            removed.remove(part.getId());
+            if (persistedQuantity == null) {
+                added.add(part);
+            } else if (persistedQuantity != part.getQuantity()) {
+                changed.add(part);
+            }
+        }
+        return new PartChanges(added, changed, List.copyOf(removed));
+    }
+
+    public Money getPartsTotal() {
+        assert partsTotal == recomputePartsTotal() : "Parts total of repair order " + id + " is out of sync";
+        return Money.ofGrosze(partsTotal);
+    }
+
+    public Money getTotalCost() {
+        return serviceCost.plus(getPartsTotal());
+    }
+
+    private long recomputePartsTotal() {
+        long total = 0;
+        for (Part part : parts) {
+            total = Math.addExact(total, lineTotal(part.getPrice(), part.getQuantity()));
+        }
+        return total;
+    }
+
+    private static long lineTotal(Money price, int quantity) {
+        return Math.multiplyExact(price.grosze(), quantity);
     }
 
     @Override
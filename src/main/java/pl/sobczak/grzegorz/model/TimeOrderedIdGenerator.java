@@ -0,0 +1,34 @@
+package pl.sobczak.grzegorz.model;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+final class TimeOrderedIdGenerator implements IdGenerator {
+    static final TimeOrderedIdGenerator SHARED = new TimeOrderedIdGenerator(System::currentTimeMillis);
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long TIMESTAMP_MASK = (1L << 48) - 1;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+
+    private final LongSupplier clock;
+    private final AtomicLong lastState = new AtomicLong();
+
+    TimeOrderedIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        long candidate = clock.getAsLong() << COUNTER_BITS;
+        long state = lastState.accumulateAndGet(candidate, (last, now) -> Math.max(last + 1, now));
+        long timestamp = (state >>> COUNTER_BITS) & TIMESTAMP_MASK;
+        long mostSigBits = timestamp << 16 | VERSION_7 | (state & COUNTER_MASK);
+        long leastSigBits = ThreadLocalRandom.current().nextLong() & VARIANT_MASK | VARIANT_RFC_4122;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+}
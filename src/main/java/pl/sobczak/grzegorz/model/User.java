@@ -1,7 +1,6 @@
 package pl.sobczak.grzegorz.model;
 
 import java.util.Objects;
-import java.util.UUID;
 
 public class User {
     private final String id;
@@ -28,7 +27,11 @@ public class User {
     }
 
     public User(String firstName, String lastName, String email, String password) {
-        this(UUID.randomUUID().toString(), firstName, lastName, email, password);
+        this(IdGenerator.defaultGenerator(), firstName, lastName, email, password);
+    }
+
+    public User(IdGenerator idGenerator, String firstName, String lastName, String email, String password) {
+        this(idGenerator.nextId(), firstName, lastName, email, password);
     }
 
     public String getEmail() { return email; }
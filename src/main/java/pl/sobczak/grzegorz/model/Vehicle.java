@@ -1,7 +1,7 @@
 package pl.sobczak.grzegorz.model;
 
+import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.UUID;
 
 public class Vehicle {
     private final String id;
@@ -10,8 +10,13 @@ public class Vehicle {
     private final String model;
     private final String vin;
     private String color;
+    private final LocalDateTime createdAt;
 
     public Vehicle(String id, String ownerId, String brand, String model, String vin, String color) {
+        this(id, ownerId, brand, model, vin, color, LocalDateTime.now());
+    }
+
+    public Vehicle(String id, String ownerId, String brand, String model, String vin, String color, LocalDateTime createdAt) {
         validateRequired(id, "ID");
         validateRequired(ownerId, "Owner ID");
         validateRequired(brand, "Brand");
@@ -27,10 +32,15 @@ public class Vehicle {
         this.model = model;
         this.vin = vin;
         this.color = color;
+        this.createdAt = createdAt;
     }
 
     public Vehicle(String ownerId, String brand, String model, String vin,  String color) {
-        this(UUID.randomUUID().toString(), ownerId, brand, model, vin,  color);
+        this(IdGenerator.defaultGenerator(), ownerId, brand, model, vin, color);
+    }
+
+    public Vehicle(IdGenerator idGenerator, String ownerId, String brand, String model, String vin, String color) {
+        this(idGenerator.nextId(), ownerId, brand, model, vin, color);
     }
 
     public String getId() { return id; }
@@ -39,6 +49,7 @@ public class Vehicle {
     public String getModel() { return model; }
     public String getVin() { return vin; }
     public String getColor() { return color; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
 
     private void validateRequired(String value, String fieldName) {
         if (value == null || value.trim().isEmpty()) {
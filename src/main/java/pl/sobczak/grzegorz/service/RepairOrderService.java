@@ -1,56 +1,134 @@
 package pl.sobczak.grzegorz.service;
 
+import pl.sobczak.grzegorz.dao.Page;
+import pl.sobczak.grzegorz.dao.PageRequest;
 import pl.sobczak.grzegorz.dao.RepairOrderDao;
 import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.metrics.MetricsRegistry;
+import pl.sobczak.grzegorz.metrics.OperationMetrics;
+import pl.sobczak.grzegorz.model.Money;
 import pl.sobczak.grzegorz.model.Part;
 import pl.sobczak.grzegorz.model.RepairStatus;
 import pl.sobczak.grzegorz.model.RepairOrder;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 public record RepairOrderService(RepairOrderDao repairOrderDao, VehicleDao vehicleDao) {
 
+    private static final OperationMetrics CREATE_ORDER = MetricsRegistry.global().operation("RepairOrderService.createOrder");
+    private static final OperationMetrics ADD_PARTS_TO_ORDER = MetricsRegistry.global().operation("RepairOrderService.addPartsToOrder");
+    private static final OperationMetrics START_REPAIR = MetricsRegistry.global().operation("RepairOrderService.startRepair");
+    private static final OperationMetrics WAIT_FOR_PARTS = MetricsRegistry.global().operation("RepairOrderService.waitForParts");
+    private static final OperationMetrics COMPLETE_REPAIR = MetricsRegistry.global().operation("RepairOrderService.completeRepair");
+    private static final OperationMetrics CANCEL_REPAIR = MetricsRegistry.global().operation("RepairOrderService.cancelRepair");
+    private static final OperationMetrics GET_TOTAL_REPAIR_COSTS_FOR_VEHICLE = MetricsRegistry.global().operation("RepairOrderService.getTotalRepairCostsForVehicle");
+    private static final OperationMetrics GET_TOTAL_REPAIR_COSTS_FOR_OWNER = MetricsRegistry.global().operation("RepairOrderService.getTotalRepairCostsForOwner");
+    private static final OperationMetrics GET_TOTAL_REPAIR_COSTS_BY_STATUS = MetricsRegistry.global().operation("RepairOrderService.getTotalRepairCostsByStatus");
+    private static final OperationMetrics GET_TOTAL_REPAIR_COSTS_BETWEEN = MetricsRegistry.global().operation("RepairOrderService.getTotalRepairCostsBetween");
+    private static final OperationMetrics GET_VEHICLE_HISTORY = MetricsRegistry.global().operation("RepairOrderService.getVehicleHistory");
+    private static final OperationMetrics GET_VEHICLE_HISTORY_PAGE = MetricsRegistry.global().operation("RepairOrderService.getVehicleHistoryPage");
+    private static final OperationMetrics STREAM_VEHICLE_HISTORY = MetricsRegistry.global().operation("RepairOrderService.streamVehicleHistory");
+
     public void createOrder(RepairOrder order) {
-        if (vehicleDao.findById(order.getVehicleId()).isEmpty()) {
-            throw new RuntimeException("Cannot create Order: Vehicle not found");
-        }
-        repairOrderDao.save(order);
+        CREATE_ORDER.run(() -> {
+            if (vehicleDao.findById(order.getVehicleId()).isEmpty()) {
+                throw new RuntimeException("Cannot create Order: Vehicle not found");
+            }
+            repairOrderDao.save(order);
+        });
     }
 
     public void addPartToOrder(String orderId, Part part) {
-        RepairOrder order = repairOrderDao.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+        addPartsToOrder(orderId, Collections.singletonList(part));
+    }
 
-        if (order.getStatus() == RepairStatus.COMPLETED || order.getStatus() == RepairStatus.CANCELLED) {
-            throw new IllegalStateException("Cannot add parts to a closed or cancelled repair");
-        }
+    public void addPartsToOrder(String orderId, List<Part> parts) {
+        ADD_PARTS_TO_ORDER.run(() -> {
+            for (Part part : parts) {
+                if (part == null) throw new IllegalArgumentException("Part cannot be null");
+                if (!part.getRepairOrderId().equals(orderId)) {
+                    throw new IllegalArgumentException("Part belongs to a different repair order");
+                }
+            }
+
+            if (!repairOrderDao.addParts(orderId, parts)) {
+                repairOrderDao.findStatusById(orderId)
+                        .orElseThrow(() -> new RuntimeException("Order not found"));
+                throw new IllegalStateException("Cannot add parts to a closed or cancelled repair");
+            }
+        });
+    }
 
-        order.addPart(part);
+    public void startRepair(String orderId) {
+        START_REPAIR.run(() -> {
+            repairOrderDao.findById(orderId).ifPresent(order -> {
+                order.updateStatus(RepairStatus.IN_PROGRESS);
+                repairOrderDao.update(order);
+            });
+        });
+    }
 
-        repairOrderDao.update(order);
+    public void waitForParts(String orderId) {
+        WAIT_FOR_PARTS.run(() -> {
+            repairOrderDao.findById(orderId).ifPresent(order -> {
+                order.updateStatus(RepairStatus.WAITING_FOR_PARTS);
+                repairOrderDao.update(order);
+            });
+        });
     }
 
     public void completeRepair(String orderId) {
-        repairOrderDao.findById(orderId).ifPresent(order -> {
-            order.updateStatus(RepairStatus.COMPLETED);
-            repairOrderDao.update(order);
+        COMPLETE_REPAIR.run(() -> {
+            repairOrderDao.findById(orderId).ifPresent(order -> {
+                order.updateStatus(RepairStatus.COMPLETED);
+                repairOrderDao.update(order);
+            });
         });
     }
 
     public void cancelRepair(String orderId) {
-        repairOrderDao.findById(orderId).ifPresent(order -> {
-            order.updateStatus(RepairStatus.CANCELLED);
-            repairOrderDao.update(order);
+        CANCEL_REPAIR.run(() -> {
+            repairOrderDao.findById(orderId).ifPresent(order -> {
+                order.updateStatus(RepairStatus.CANCELLED);
+                repairOrderDao.update(order);
+            });
         });
     }
 
-    public double getTotalRepairCostsForVehicle(String vehicleId) {
-        return repairOrderDao.findByVehicleId(vehicleId).stream()
-                .mapToDouble(RepairOrder::getTotalCost)
-                .sum();
+    public Money getTotalRepairCostsForVehicle(String vehicleId) {
+        return GET_TOTAL_REPAIR_COSTS_FOR_VEHICLE.call(() -> repairOrderDao.sumTotalCostByVehicleId(vehicleId));
+    }
+
+    public Money getTotalRepairCostsForOwner(String ownerId) {
+        return GET_TOTAL_REPAIR_COSTS_FOR_OWNER.call(() -> repairOrderDao.sumTotalCostByOwnerId(ownerId));
+    }
+
+    public Money getTotalRepairCostsByStatus(RepairStatus status) {
+        return GET_TOTAL_REPAIR_COSTS_BY_STATUS.call(() -> repairOrderDao.sumTotalCostByStatus(status));
+    }
+
+    public Money getTotalRepairCostsBetween(LocalDateTime from, LocalDateTime to) {
+        return GET_TOTAL_REPAIR_COSTS_BETWEEN.call(() -> {
+            if (from == null || to == null || !from.isBefore(to)) {
+                throw new IllegalArgumentException("Reporting period must start before it ends");
+            }
+            return repairOrderDao.sumTotalCostCreatedBetween(from, to);
+        });
     }
 
     public List<RepairOrder> getVehicleHistory(String vehicleId) {
-        return repairOrderDao.findByVehicleId(vehicleId);
+        return GET_VEHICLE_HISTORY.call(() -> repairOrderDao.findByVehicleId(vehicleId));
+    }
+
+    public Page<RepairOrder> getVehicleHistory(String vehicleId, PageRequest pageRequest) {
+        return GET_VEHICLE_HISTORY_PAGE.call(() -> repairOrderDao.findByVehicleId(vehicleId, pageRequest),
+                page -> page.items().size());
+    }
+
+    public Stream<RepairOrder> streamVehicleHistory(String vehicleId) {
+        return STREAM_VEHICLE_HISTORY.call(() -> repairOrderDao.streamByVehicleId(vehicleId));
     }
 }
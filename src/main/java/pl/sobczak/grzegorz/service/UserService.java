@@ -1,40 +1,53 @@
 package pl.sobczak.grzegorz.service;
 
 import pl.sobczak.grzegorz.dao.UserDao;
+import pl.sobczak.grzegorz.metrics.MetricsRegistry;
+import pl.sobczak.grzegorz.metrics.OperationMetrics;
 import pl.sobczak.grzegorz.model.Role;
 import pl.sobczak.grzegorz.model.User;
 
 public record UserService(UserDao userDao) {
 
-    public User registerNewUser(String firstName, String lastName, String email, String password) {
-        if (userDao.getUserByEmail(email).isPresent()) {
-            throw new IllegalArgumentException("User with email " + email + " already exists");
-        }
+    private static final OperationMetrics REGISTER_NEW_USER = MetricsRegistry.global().operation("UserService.registerNewUser");
+    private static final OperationMetrics CHANGE_USER_ROLE = MetricsRegistry.global().operation("UserService.changeUserRole");
+    private static final OperationMetrics DEACTIVATE_USER = MetricsRegistry.global().operation("UserService.deactivateUser");
+    private static final OperationMetrics AUTHENTICATE = MetricsRegistry.global().operation("UserService.authenticate");
 
-        User newUser = new User(firstName, lastName, email, password);
-        userDao.saveUser(newUser);
-        return newUser;
+    public User registerNewUser(String firstName, String lastName, String email, String password) {
+        return REGISTER_NEW_USER.call(() -> {
+            if (userDao.getUserByEmail(email).isPresent()) {
+                throw new IllegalArgumentException("User with email " + email + " already exists");
+            }
+
+            User newUser = new User(firstName, lastName, email, password);
+            userDao.saveUser(newUser);
+            return newUser;
+        });
     }
 
     public void changeUserRole(String email, Role newRole) {
-        User user = userDao.getUserByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        CHANGE_USER_ROLE.run(() -> {
+            User user = userDao.getUserByEmail(email)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
 
-        user.updateRole(newRole);
-        userDao.updateUser(user);
+            user.updateRole(newRole);
+            userDao.updateUser(user);
+        });
     }
 
     public void deactivateUser(String email) {
-        User user = userDao.getUserByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        DEACTIVATE_USER.run(() -> {
+            User user = userDao.getUserByEmail(email)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
 
-        user.deactivate();
-        userDao.updateUser(user);
+            user.deactivate();
+            userDao.updateUser(user);
+        });
     }
 
     public boolean authenticate(String email, String password) {
-        return userDao.getUserByEmail(email)
+        return AUTHENTICATE.call(() -> userDao.getUserByEmail(email)
                 .map(user -> user.checkPassword(password) && user.isActive())
-                .orElse(false);
+                .orElse(false));
     }
 }
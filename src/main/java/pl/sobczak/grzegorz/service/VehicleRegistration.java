@@ -0,0 +1,4 @@
+package pl.sobczak.grzegorz.service;
+
+public record VehicleRegistration(String ownerId, String brand, String model, String vin, String color) {
+}
@@ -0,0 +1,32 @@
+package pl.sobczak.grzegorz.service;
+
+import pl.sobczak.grzegorz.model.Vehicle;
+
+import java.util.List;
+
+public record VehicleRegistrationReport(List<Result> results) {
+
+    public record Result(int row, VehicleRegistration registration, Vehicle vehicle, String error) {
+
+        public boolean isRegistered() {
+            return vehicle != null;
+        }
+    }
+
+    public VehicleRegistrationReport {
+        results = List.copyOf(results);
+    }
+
+    public List<Vehicle> registered() {
+        return results.stream()
+                .filter(Result::isRegistered)
+                .map(Result::vehicle)
+                .toList();
+    }
+
+    public List<Result> failures() {
+        return results.stream()
+                .filter(result -> !result.isRegistered())
+                .toList();
+    }
+}
@@ -1,36 +1,132 @@
 package pl.sobczak.grzegorz.service;
 
+import pl.sobczak.grzegorz.dao.Page;
+import pl.sobczak.grzegorz.dao.PageRequest;
 import pl.sobczak.grzegorz.dao.UserDao;
 import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.metrics.MetricsRegistry;
+import pl.sobczak.grzegorz.metrics.OperationMetrics;
 import pl.sobczak.grzegorz.model.Vehicle;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public record VehicleService(VehicleDao vehicleDao, UserDao userDao) {
 
+    private static final OperationMetrics REGISTER_NEW_VEHICLE = MetricsRegistry.global().operation("VehicleService.registerNewVehicle");
+    private static final OperationMetrics REGISTER_VEHICLES = MetricsRegistry.global().operation("VehicleService.registerVehicles");
+    private static final OperationMetrics GET_VEHICLES_BY_OWNER = MetricsRegistry.global().operation("VehicleService.getVehiclesByOwner");
+    private static final OperationMetrics GET_VEHICLES_BY_OWNER_PAGE = MetricsRegistry.global().operation("VehicleService.getVehiclesByOwnerPage");
+    private static final OperationMetrics CHANGE_VEHICLE_COLOR = MetricsRegistry.global().operation("VehicleService.changeVehicleColor");
+
     public Vehicle registerNewVehicle(String ownerId, String brand, String model, String vin, String color) {
-        if (userDao.getUserById(ownerId).isEmpty()) {
-            throw new RuntimeException("Cannot register vehicle: Owner not found");
-        }
+        return REGISTER_NEW_VEHICLE.call(() -> {
+            if (userDao.getUserById(ownerId).isEmpty()) {
+                throw new RuntimeException("Cannot register vehicle: Owner not found");
+            }
+
+            if (vehicleDao.findByVin(vin).isPresent()) {
+                throw new RuntimeException("Vehicle with this VIN already exists");
+            }
+
+            Vehicle vehicle = new Vehicle(ownerId, brand, model, vin, color);
+            vehicleDao.save(vehicle);
+            return vehicle;
+        });
+    }
+
+    public VehicleRegistrationReport registerVehicles(Collection<VehicleRegistration> registrations) {
+        return REGISTER_VEHICLES.call(() -> {
+            List<VehicleRegistration> rows = new ArrayList<>(registrations);
+            Vehicle[] candidates = new Vehicle[rows.size()];
+            String[] errors = new String[rows.size()];
 
-        if (vehicleDao.findByVin(vin).isPresent()) {
-            throw new RuntimeException("Vehicle with this VIN already exists");
-        }
+            Set<String> batchVins = new HashSet<>();
+            for (int i = 0; i < rows.size(); i++) {
+                VehicleRegistration row = rows.get(i);
+                if (row == null) {
+                    errors[i] = "Registration cannot be empty";
+                    continue;
+                }
+                try {
+                    candidates[i] = new Vehicle(row.ownerId(), row.brand(), row.model(), row.vin(), row.color());
+                } catch (IllegalArgumentException e) {
+                    errors[i] = e.getMessage();
+                    continue;
+                }
+                if (!batchVins.add(row.vin())) {
+                    candidates[i] = null;
+                    errors[i] = "Duplicate VIN in this batch";
+                }
+            }
 
-        Vehicle vehicle = new Vehicle(ownerId, brand, model, vin, color);
-        vehicleDao.save(vehicle);
-        return vehicle;
+            Set<String> ownerIds = new HashSet<>();
+            for (Vehicle candidate : candidates) {
+                if (candidate != null) {
+                    ownerIds.add(candidate.getOwnerId());
+                }
+            }
+            Set<String> knownOwners = userDao.findExistingIds(ownerIds);
+            Set<String> takenVins = vehicleDao.findExistingVins(batchVins);
+
+            List<Vehicle> accepted = new ArrayList<>();
+            for (int i = 0; i < candidates.length; i++) {
+                Vehicle candidate = candidates[i];
+                if (candidate == null) {
+                    continue;
+                }
+                if (!knownOwners.contains(candidate.getOwnerId())) {
+                    errors[i] = "Cannot register vehicle: Owner not found";
+                } else if (takenVins.contains(candidate.getVin())) {
+                    errors[i] = "Vehicle with this VIN already exists";
+                } else {
+                    accepted.add(candidate);
+                    continue;
+                }
+                candidates[i] = null;
+            }
+
+            Set<String> inserted;
+            String insertError = null;
+            try {
+                inserted = vehicleDao.saveAllIfAbsent(accepted);
+            } catch (RuntimeException e) {
+                inserted = Set.of();
+                insertError = e.getMessage();
+            }
+
+            List<VehicleRegistrationReport.Result> results = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                Vehicle candidate = candidates[i];
+                if (candidate != null && !inserted.contains(candidate.getId())) {
+                    errors[i] = insertError != null ? insertError : "Vehicle with this VIN already exists";
+                    candidate = null;
+                }
+                results.add(new VehicleRegistrationReport.Result(i, rows.get(i), candidate, errors[i]));
+            }
+            return new VehicleRegistrationReport(results);
+        });
     }
 
     public List<Vehicle> getVehiclesByOwner(String ownerId) {
-        return vehicleDao.findByOwnerId(ownerId);
+        return GET_VEHICLES_BY_OWNER.call(() -> vehicleDao.findByOwnerId(ownerId));
+    }
+
+    public Page<Vehicle> getVehiclesByOwner(String ownerId, PageRequest pageRequest) {
+        return GET_VEHICLES_BY_OWNER_PAGE.call(() -> vehicleDao.findByOwnerId(ownerId, pageRequest),
+                page -> page.items().size());
     }
 
     public void changeVehicleColor(String vin, String newColor) {
-        Vehicle vehicle = vehicleDao.findByVin(vin)
-                .orElseThrow(() -> new RuntimeException("Vehicle not found"));
+        CHANGE_VEHICLE_COLOR.run(() -> {
+            Vehicle vehicle = vehicleDao.findByVin(vin)
+                    .orElseThrow(() -> new RuntimeException("Vehicle not found"));
 
-        vehicle.changeColor(newColor);
-        vehicleDao.update(vehicle);
+            vehicle.changeColor(newColor);
+            vehicleDao.update(vehicle);
+        });
     }
 }
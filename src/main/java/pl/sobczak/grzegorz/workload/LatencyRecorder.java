@@ -0,0 +1,80 @@
+package pl.sobczak.grzegorz.workload;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+class LatencyRecorder {
+    static final int MAX_SAMPLES = 1 << 20;
+
+    private final RandomGenerator random;
+    private long[] samples = new long[1024];
+    private int sampleCount;
+    private long count;
+    private long errors;
+    private long maxNanos;
+    private String firstError;
+
+    LatencyRecorder(RandomGenerator random) {
+        this.random = random;
+    }
+
+    void recordSuccess(long nanos) {
+        count++;
+        maxNanos = Math.max(maxNanos, nanos);
+        if (sampleCount < samples.length) {
+            samples[sampleCount++] = nanos;
+        } else if (samples.length < MAX_SAMPLES) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+            samples[sampleCount++] = nanos;
+        } else {
+            long slot = random.nextLong(count);
+            if (slot < MAX_SAMPLES) {
+                samples[(int) slot] = nanos;
+            }
+        }
+    }
+
+    void recordError(RuntimeException e) {
+        errors++;
+        if (firstError == null) {
+            firstError = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    static WorkloadReport.OperationResult merge(WorkloadOperation operation, List<LatencyRecorder> recorders, double seconds) {
+        long count = 0;
+        long errors = 0;
+        long max = 0;
+        int sampleTotal = 0;
+        String firstError = null;
+        for (LatencyRecorder recorder : recorders) {
+            count += recorder.count;
+            errors += recorder.errors;
+            max = Math.max(max, recorder.maxNanos);
+            sampleTotal += recorder.sampleCount;
+            if (firstError == null) {
+                firstError = recorder.firstError;
+            }
+        }
+
+        long[] merged = new long[sampleTotal];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, merged, offset, recorder.sampleCount);
+            offset += recorder.sampleCount;
+        }
+        Arrays.sort(merged);
+
+        return new WorkloadReport.OperationResult(operation, count, errors, count / seconds,
+                percentile(merged, 0.50), percentile(merged, 0.95), percentile(merged, 0.99), max, firstError);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+}
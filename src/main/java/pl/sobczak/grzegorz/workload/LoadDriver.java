@@ -0,0 +1,260 @@
+package pl.sobczak.grzegorz.workload;
+
+import pl.sobczak.grzegorz.dao.PageRequest;
+import pl.sobczak.grzegorz.dao.RepairOrderDao;
+import pl.sobczak.grzegorz.dao.SortDirection;
+import pl.sobczak.grzegorz.dao.UserCache;
+import pl.sobczak.grzegorz.dao.UserDao;
+import pl.sobczak.grzegorz.dao.VehicleCache;
+import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.db.ConnectionPool;
+import pl.sobczak.grzegorz.model.Part;
+import pl.sobczak.grzegorz.model.RepairOrder;
+import pl.sobczak.grzegorz.model.RepairStatus;
+import pl.sobczak.grzegorz.service.RepairOrderService;
+import pl.sobczak.grzegorz.service.UserService;
+import pl.sobczak.grzegorz.service.VehicleService;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+public class LoadDriver {
+    private static final String PASSWORD = "load-test-secret";
+    private static final String[][] MODELS = {
+            {"Toyota", "Corolla"}, {"Skoda", "Octavia"}, {"Volkswagen", "Golf"}, {"Ford", "Focus"}, {"Opel", "Astra"}
+    };
+    private static final String[] COLORS = {"White", "Black", "Silver", "Red", "Blue"};
+    private static final double CANCEL_RATE = 0.1;
+    private static final double WAIT_FOR_PARTS_RATE = 0.4;
+    private static final int HISTORY_PAGE_SIZE = 20;
+
+    private record Services(UserService users, VehicleService vehicles, RepairOrderService orders) {
+    }
+
+    private final ConnectionPool.ConnectionFactory connections;
+    private final UserCache userCache;
+    private final VehicleCache vehicleCache;
+    private final WorkloadOptions options;
+
+    public LoadDriver(ConnectionPool.ConnectionFactory connections, WorkloadOptions options) {
+        this(connections, null, null, options);
+    }
+
+    public LoadDriver(ConnectionPool.ConnectionFactory connections, UserCache userCache, VehicleCache vehicleCache,
+                      WorkloadOptions options) {
+        this.connections = connections;
+        this.userCache = userCache;
+        this.vehicleCache = vehicleCache;
+        this.options = options;
+    }
+
+    public WorkloadReport run() {
+        SplittableRandom root = new SplittableRandom(options.randomSeed());
+        WorkloadState state = new WorkloadState(Long.toString(System.currentTimeMillis(), 36).toUpperCase());
+        seed(state, root.split());
+
+        List<Map<WorkloadOperation, LatencyRecorder>> recorders = new ArrayList<>();
+        List<SplittableRandom> randoms = new ArrayList<>();
+        for (int i = 0; i < options.threads(); i++) {
+            SplittableRandom random = root.split();
+            Map<WorkloadOperation, LatencyRecorder> perOperation = new EnumMap<>(WorkloadOperation.class);
+            for (WorkloadOperation operation : WorkloadOperation.values()) {
+                perOperation.put(operation, new LatencyRecorder(random.split()));
+            }
+            recorders.add(perOperation);
+            randoms.add(random);
+        }
+
+        long measureFrom = System.nanoTime() + options.warmup().toNanos();
+        long measureUntil = measureFrom + options.duration().toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads(), r -> {
+            Thread thread = new Thread(r, "load-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < options.threads(); i++) {
+                Map<WorkloadOperation, LatencyRecorder> perOperation = recorders.get(i);
+                SplittableRandom random = randoms.get(i);
+                workers.add(executor.submit(() -> work(state, random, perOperation, measureFrom, measureUntil)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Load test was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Load driver worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = options.duration().toNanos() / 1e9;
+        List<WorkloadReport.OperationResult> results = new ArrayList<>();
+        for (WorkloadOperation operation : WorkloadOperation.values()) {
+            List<LatencyRecorder> perThread = recorders.stream().map(perOperation -> perOperation.get(operation)).toList();
+            WorkloadReport.OperationResult result = LatencyRecorder.merge(operation, perThread, seconds);
+            if (result.count() > 0 || result.errors() > 0 || options.mix().weights().containsKey(operation)) {
+                results.add(result);
+            }
+        }
+        return new WorkloadReport(options.threads(), options.duration(), results);
+    }
+
+    private void seed(WorkloadState state, RandomGenerator random) {
+        try (Connection conn = connections.create()) {
+            Services services = services(conn);
+            for (int i = 0; i < options.seedOwners(); i++) {
+                registerOwner(services, state);
+            }
+            for (int i = 0; i < options.seedVehicles(); i++) {
+                checkInVehicle(services, state, random);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error seeding load test data", e);
+        }
+    }
+
+    private void work(WorkloadState state, RandomGenerator random, Map<WorkloadOperation, LatencyRecorder> recorders,
+                      long measureFrom, long measureUntil) {
+        while (!Thread.currentThread().isInterrupted()) {
+            long start = System.nanoTime();
+            if (start >= measureUntil) {
+                return;
+            }
+            WorkloadOperation operation = options.mix().next(random);
+            try (Connection conn = connections.create()) {
+                WorkloadOperation performed = execute(operation, services(conn), state, random);
+                if (start >= measureFrom) {
+                    recorders.get(performed).recordSuccess(System.nanoTime() - start);
+                }
+            } catch (SQLException e) {
+                if (start >= measureFrom) {
+                    recorders.get(operation).recordError(new RuntimeException("Error borrowing connection", e));
+                }
+            } catch (RuntimeException e) {
+                if (start >= measureFrom) {
+                    recorders.get(operation).recordError(e);
+                }
+            }
+        }
+    }
+
+    private WorkloadOperation execute(WorkloadOperation operation, Services services, WorkloadState state,
+                                      RandomGenerator random) {
+        switch (operation) {
+            case REGISTER_OWNER -> registerOwner(services, state);
+            case CHECK_IN_VEHICLE -> checkInVehicle(services, state, random);
+            case OPEN_ORDER -> openOrder(services, state, random);
+            case ADD_PARTS -> {
+                WorkloadState.ActiveOrder order = state.claimOrder(random);
+                if (order == null) {
+                    openOrder(services, state, random);
+                    return WorkloadOperation.OPEN_ORDER;
+                }
+                try {
+                    addParts(services, order, random);
+                } finally {
+                    state.release(order);
+                }
+            }
+            case ADVANCE_STATUS -> {
+                WorkloadState.ActiveOrder order = state.claimOrder(random);
+                if (order == null) {
+                    openOrder(services, state, random);
+                    return WorkloadOperation.OPEN_ORDER;
+                }
+                WorkloadState.ActiveOrder released = order;
+                try {
+                    RepairStatus next = advance(services, order, random);
+                    released = next == RepairStatus.COMPLETED || next == RepairStatus.CANCELLED
+                            ? null
+                            : new WorkloadState.ActiveOrder(order.id(), next);
+                } finally {
+                    if (released != null) {
+                        state.release(released);
+                    }
+                }
+            }
+            case VEHICLE_HISTORY -> services.orders().getVehicleHistory(state.pickVehicle(options.vehicleSkew(), random),
+                    PageRequest.first(HISTORY_PAGE_SIZE, SortDirection.DESC));
+            case VEHICLE_COSTS -> services.orders().getTotalRepairCostsForVehicle(state.pickVehicle(options.vehicleSkew(), random));
+        }
+        return operation;
+    }
+
+    private static void registerOwner(Services services, WorkloadState state) {
+        state.addOwner(services.users().registerNewUser("Jan", "Kowalski", state.nextEmail(), PASSWORD).getUserId());
+    }
+
+    private void checkInVehicle(Services services, WorkloadState state, RandomGenerator random) {
+        String[] model = MODELS[random.nextInt(MODELS.length)];
+        String ownerId = state.pickOwner(options.ownerSkew(), random);
+        state.addVehicle(services.vehicles().registerNewVehicle(ownerId, model[0], model[1], state.nextVin(),
+                COLORS[random.nextInt(COLORS.length)]).getId());
+    }
+
+    private void openOrder(Services services, WorkloadState state, RandomGenerator random) {
+        RepairOrder order = new RepairOrder(state.pickVehicle(options.vehicleSkew(), random), "Workshop visit",
+                random.nextInt(50, 2_000));
+        services.orders().createOrder(order);
+        state.release(new WorkloadState.ActiveOrder(order.getId(), order.getStatus()));
+    }
+
+    private void addParts(Services services, WorkloadState.ActiveOrder order, RandomGenerator random) {
+        int count = options.partsPerOrder().sample(random);
+        List<Part> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int catalogNumber = random.nextInt(500);
+            parts.add(new Part(order.id(), "PART-" + catalogNumber, "Part " + catalogNumber,
+                    random.nextInt(5, 800), random.nextInt(1, 5)));
+        }
+        services.orders().addPartsToOrder(order.id(), parts);
+    }
+
+    private static RepairStatus advance(Services services, WorkloadState.ActiveOrder order, RandomGenerator random) {
+        RepairOrderService orders = services.orders();
+        switch (order.status()) {
+            case OPEN -> {
+                if (random.nextDouble() < CANCEL_RATE) {
+                    orders.cancelRepair(order.id());
+                    return RepairStatus.CANCELLED;
+                }
+                orders.startRepair(order.id());
+                return RepairStatus.IN_PROGRESS;
+            }
+            case IN_PROGRESS -> {
+                if (random.nextDouble() < WAIT_FOR_PARTS_RATE) {
+                    orders.waitForParts(order.id());
+                    return RepairStatus.WAITING_FOR_PARTS;
+                }
+                orders.completeRepair(order.id());
+                return RepairStatus.COMPLETED;
+            }
+            case WAITING_FOR_PARTS -> {
+                orders.startRepair(order.id());
+                return RepairStatus.IN_PROGRESS;
+            }
+            default -> throw new IllegalStateException("Order " + order.id() + " is already " + order.status());
+        }
+    }
+
+    private Services services(Connection conn) {
+        UserDao userDao = new UserDao(conn, userCache);
+        VehicleDao vehicleDao = new VehicleDao(conn, vehicleCache);
+        return new Services(new UserService(userDao), new VehicleService(vehicleDao, userDao),
+                new RepairOrderService(new RepairOrderDao(conn), vehicleDao));
+    }
+}
@@ -0,0 +1,50 @@
+package pl.sobczak.grzegorz.workload;
+
+import java.util.random.RandomGenerator;
+
+public record SkewedDistribution(int min, int max, double skew) {
+
+    public SkewedDistribution {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Distribution range must satisfy 0 <= min <= max");
+        }
+        if (skew < 1.0 || Double.isNaN(skew) || Double.isInfinite(skew)) {
+            throw new IllegalArgumentException("Skew must be a finite number of at least 1.0");
+        }
+    }
+
+    public static SkewedDistribution uniform(int min, int max) {
+        return new SkewedDistribution(min, max, 1.0);
+    }
+
+    public static SkewedDistribution parse(String spec) {
+        try {
+            String[] rangeAndSkew = spec.split(":", 2);
+            String[] bounds = rangeAndSkew[0].split("-", 2);
+            int min = Integer.parseInt(bounds[0].trim());
+            int max = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : min;
+            double skew = rangeAndSkew.length > 1 ? Double.parseDouble(rangeAndSkew[1].trim()) : 1.0;
+            return new SkewedDistribution(min, max, skew);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Distribution must look like min-max[:skew]: " + spec);
+        }
+    }
+
+    public int sample(RandomGenerator random) {
+        return min + index(max - min + 1, skew, random);
+    }
+
+    static int index(int size, double skew, RandomGenerator random) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Cannot pick from an empty range");
+        }
+        double u = random.nextDouble();
+        int index = (int) (size * (skew == 1.0 ? u : Math.pow(u, skew)));
+        return Math.min(index, size - 1);
+    }
+
+    @Override
+    public String toString() {
+        return min + "-" + max + ":" + skew;
+    }
+}
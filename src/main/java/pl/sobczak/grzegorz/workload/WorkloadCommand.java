@@ -0,0 +1,58 @@
+package pl.sobczak.grzegorz.workload;
+
+import pl.sobczak.grzegorz.db.DatabaseConnection;
+import pl.sobczak.grzegorz.metrics.MetricsRegistry;
+
+import java.time.Duration;
+
+public class WorkloadCommand {
+    private static final String USAGE = "Usage: WorkloadCommand [--threads N] [--duration SECONDS] [--warmup SECONDS] " +
+            "[--mix register=2,check-in=5,open-order=15,add-parts=15,advance=20,history=30,costs=13] " +
+            "[--owners N] [--vehicles N] [--owner-skew X] [--vehicle-skew X] [--parts MIN-MAX[:SKEW]] [--seed N]";
+
+    public static void main(String[] args) {
+        WorkloadOptions options = WorkloadOptions.defaults();
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException(USAGE);
+                }
+                String value = args[i + 1];
+                options = switch (args[i]) {
+                    case "--threads" -> options.withThreads(Integer.parseInt(value));
+                    case "--duration" -> options.withDuration(Duration.ofSeconds(Long.parseLong(value)));
+                    case "--warmup" -> options.withWarmup(Duration.ofSeconds(Long.parseLong(value)));
+                    case "--mix" -> options.withMix(WorkloadMix.parse(value));
+                    case "--owners" -> options.withSeedData(Integer.parseInt(value), options.seedVehicles());
+                    case "--vehicles" -> options.withSeedData(options.seedOwners(), Integer.parseInt(value));
+                    case "--owner-skew" -> options.withOwnerSkew(Double.parseDouble(value));
+                    case "--vehicle-skew" -> options.withVehicleSkew(Double.parseDouble(value));
+                    case "--parts" -> options.withPartsPerOrder(SkewedDistribution.parse(value));
+                    case "--seed" -> options.withRandomSeed(Long.parseLong(value));
+                    default -> throw new IllegalArgumentException(USAGE);
+                };
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            if (!USAGE.equals(e.getMessage())) {
+                System.err.println(USAGE);
+            }
+            System.exit(2);
+        }
+
+        DatabaseConnection.initDatabase();
+        try {
+            System.out.printf("Running workload for %d s after %d s warmup on %d thread(s), mix %s%n",
+                    options.duration().toSeconds(), options.warmup().toSeconds(), options.threads(), options.mix());
+            LoadDriver driver = new LoadDriver(DatabaseConnection::getConnection,
+                    DatabaseConnection.getUserCache(), DatabaseConnection.getVehicleCache(), options);
+            System.out.print(driver.run());
+            System.out.print(MetricsRegistry.global().snapshot());
+            System.out.println(DatabaseConnection.getPool().stats());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Error: " + e.getMessage());
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package pl.sobczak.grzegorz.workload;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+public final class WorkloadMix {
+    private final Map<WorkloadOperation, Integer> weights;
+    private final WorkloadOperation[] operations;
+    private final int[] cumulativeWeights;
+
+    public WorkloadMix(Map<WorkloadOperation, Integer> weights) {
+        EnumMap<WorkloadOperation, Integer> copy = new EnumMap<>(WorkloadOperation.class);
+        int total = 0;
+        for (Map.Entry<WorkloadOperation, Integer> entry : weights.entrySet()) {
+            int weight = entry.getValue();
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + entry.getKey().key() + " cannot be negative");
+            }
+            if (weight > 0) {
+                copy.put(entry.getKey(), weight);
+                total = Math.addExact(total, weight);
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Workload mix must contain at least one operation");
+        }
+
+        this.weights = Collections.unmodifiableMap(copy);
+        this.operations = copy.keySet().toArray(WorkloadOperation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int running = 0;
+        for (int i = 0; i < operations.length; i++) {
+            running += copy.get(operations[i]);
+            cumulativeWeights[i] = running;
+        }
+    }
+
+    public static WorkloadMix defaults() {
+        Map<WorkloadOperation, Integer> weights = new EnumMap<>(WorkloadOperation.class);
+        weights.put(WorkloadOperation.REGISTER_OWNER, 2);
+        weights.put(WorkloadOperation.CHECK_IN_VEHICLE, 5);
+        weights.put(WorkloadOperation.OPEN_ORDER, 15);
+        weights.put(WorkloadOperation.ADD_PARTS, 15);
+        weights.put(WorkloadOperation.ADVANCE_STATUS, 20);
+        weights.put(WorkloadOperation.VEHICLE_HISTORY, 30);
+        weights.put(WorkloadOperation.VEHICLE_COSTS, 13);
+        return new WorkloadMix(weights);
+    }
+
+    public static WorkloadMix parse(String spec) {
+        Map<WorkloadOperation, Integer> weights = new EnumMap<>(WorkloadOperation.class);
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] keyAndWeight = entry.split("=", 2);
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Mix entry must look like operation=weight: " + entry);
+            }
+            try {
+                weights.put(WorkloadOperation.fromKey(keyAndWeight[0]), Integer.parseInt(keyAndWeight[1].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight in mix entry: " + entry);
+            }
+        }
+        return new WorkloadMix(weights);
+    }
+
+    public Map<WorkloadOperation, Integer> weights() {
+        return weights;
+    }
+
+    public WorkloadOperation next(RandomGenerator random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Weight roll out of range: " + roll);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        weights.forEach((operation, weight) -> {
+            if (!sb.isEmpty()) {
+                sb.append(',');
+            }
+            sb.append(operation.key()).append('=').append(weight);
+        });
+        return sb.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package pl.sobczak.grzegorz.workload;
+
+public enum WorkloadOperation {
+    REGISTER_OWNER("register"),
+    CHECK_IN_VEHICLE("check-in"),
+    OPEN_ORDER("open-order"),
+    ADD_PARTS("add-parts"),
+    ADVANCE_STATUS("advance"),
+    VEHICLE_HISTORY("history"),
+    VEHICLE_COSTS("costs");
+
+    private final String key;
+
+    WorkloadOperation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static WorkloadOperation fromKey(String key) {
+        for (WorkloadOperation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown workload operation: " + key);
+    }
+}
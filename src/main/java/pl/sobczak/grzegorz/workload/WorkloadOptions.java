@@ -0,0 +1,73 @@
+package pl.sobczak.grzegorz.workload;
+
+import java.time.Duration;
+
+public record WorkloadOptions(int threads, Duration warmup, Duration duration, WorkloadMix mix,
+                              int seedOwners, int seedVehicles, double ownerSkew, double vehicleSkew,
+                              SkewedDistribution partsPerOrder, long randomSeed) {
+
+    public WorkloadOptions {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (warmup == null || warmup.isNegative()) {
+            throw new IllegalArgumentException("Warmup cannot be negative");
+        }
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        if (mix == null) {
+            throw new IllegalArgumentException("Workload mix cannot be null");
+        }
+        if (seedOwners < 1 || seedVehicles < 1) {
+            throw new IllegalArgumentException("Workload needs at least one seeded owner and vehicle");
+        }
+        if (ownerSkew < 1.0 || vehicleSkew < 1.0) {
+            throw new IllegalArgumentException("Skew must be at least 1.0");
+        }
+        if (partsPerOrder == null || partsPerOrder.min() < 1) {
+            throw new IllegalArgumentException("Orders must receive at least one part per addition");
+        }
+    }
+
+    public static WorkloadOptions defaults() {
+        return new WorkloadOptions(4, Duration.ofSeconds(10), Duration.ofSeconds(60), WorkloadMix.defaults(),
+                100, 200, 3.0, 2.0, new SkewedDistribution(1, 8, 2.5), System.nanoTime());
+    }
+
+    public WorkloadOptions withThreads(int newThreads) {
+        return new WorkloadOptions(newThreads, warmup, duration, mix, seedOwners, seedVehicles, ownerSkew, vehicleSkew, partsPerOrder, randomSeed);
+    }
+
+    public WorkloadOptions withWarmup(Duration newWarmup) {
+        return new WorkloadOptions(threads, newWarmup, duration, mix, seedOwners, seedVehicles, ownerSkew, vehicleSkew, partsPerOrder, randomSeed);
+    }
+
+    public WorkloadOptions withDuration(Duration newDuration) {
+        return new WorkloadOptions(threads, warmup, newDuration, mix, seedOwners, seedVehicles, ownerSkew, vehicleSkew, partsPerOrder, randomSeed);
+    }
+
+    public WorkloadOptions withMix(WorkloadMix newMix) {
+        return new WorkloadOptions(threads, warmup, duration, newMix, seedOwners, seedVehicles, ownerSkew, vehicleSkew, partsPerOrder, randomSeed);
+    }
+
+    public WorkloadOptions withSeedData(int newSeedOwners, int newSeedVehicles) {
+        return new WorkloadOptions(threads, warmup, duration, mix, newSeedOwners, newSeedVehicles, ownerSkew, vehicleSkew, partsPerOrder, randomSeed);
+    }
+
+    public WorkloadOptions withOwnerSkew(double newOwnerSkew) {
+        return new WorkloadOptions(threads, warmup, duration, mix, seedOwners, seedVehicles, newOwnerSkew, vehicleSkew, partsPerOrder, randomSeed);
+    }
+
+    public WorkloadOptions withVehicleSkew(double newVehicleSkew) {
+        return new WorkloadOptions(threads, warmup, duration, mix, seedOwners, seedVehicles, ownerSkew, newVehicleSkew, partsPerOrder, randomSeed);
+    }
+
+    public WorkloadOptions withPartsPerOrder(SkewedDistribution newPartsPerOrder) {
+        return new WorkloadOptions(threads, warmup, duration, mix, seedOwners, seedVehicles, ownerSkew, vehicleSkew, newPartsPerOrder, randomSeed);
+    }
+
+    public WorkloadOptions withRandomSeed(long newRandomSeed) {
+        return new WorkloadOptions(threads, warmup, duration, mix, seedOwners, seedVehicles, ownerSkew, vehicleSkew, partsPerOrder, newRandomSeed);
+    }
+}
@@ -0,0 +1,59 @@
+package pl.sobczak.grzegorz.workload;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public record WorkloadReport(int threads, Duration elapsed, List<OperationResult> operations) {
+
+    public record OperationResult(WorkloadOperation operation, long count, long errors, double throughput,
+                                  long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos, String firstError) {
+    }
+
+    public WorkloadReport {
+        operations = List.copyOf(operations);
+    }
+
+    public long totalOperations() {
+        return operations.stream().mapToLong(OperationResult::count).sum();
+    }
+
+    public long totalErrors() {
+        return operations.stream().mapToLong(OperationResult::errors).sum();
+    }
+
+    public double throughput() {
+        return operations.stream().mapToDouble(OperationResult::throughput).sum();
+    }
+
+    public OperationResult result(WorkloadOperation operation) {
+        return operations.stream()
+                .filter(result -> result.operation() == operation)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No result for " + operation.key()));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Workload: %d thread(s), %.1f s, %,d ops (%,.1f ops/s), %,d errors%n",
+                threads, elapsed.toMillis() / 1000.0, totalOperations(), throughput(), totalErrors()));
+        sb.append(String.format("%-12s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "ops", "errors", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (OperationResult result : operations) {
+            sb.append(String.format("%-12s %,10d %,8d %,10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                    result.operation().key(), result.count(), result.errors(), result.throughput(),
+                    millis(result.p50Nanos()), millis(result.p95Nanos()), millis(result.p99Nanos()), millis(result.maxNanos())));
+        }
+        for (OperationResult result : operations) {
+            if (result.firstError() != null) {
+                sb.append(String.format("  first %s error: %s%n", result.operation().key(), result.firstError()));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,78 @@
+package pl.sobczak.grzegorz.workload;
+
+import pl.sobczak.grzegorz.model.RepairStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+class WorkloadState {
+    record ActiveOrder(String id, RepairStatus status) {
+    }
+
+    private final String runTag;
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<String> ownerIds = new ArrayList<>();
+    private final List<String> vehicleIds = new ArrayList<>();
+    private final List<ActiveOrder> activeOrders = new ArrayList<>();
+
+    WorkloadState(String runTag) {
+        this.runTag = runTag;
+    }
+
+    String nextEmail() {
+        return "owner-" + runTag + "-" + sequence.incrementAndGet() + "@load.test";
+    }
+
+    String nextVin() {
+        String serial = runTag + Long.toString(sequence.incrementAndGet(), 36).toUpperCase();
+        if (serial.length() > 17) {
+            throw new IllegalStateException("VIN sequence exhausted");
+        }
+        return "W".repeat(17 - serial.length()) + serial;
+    }
+
+    synchronized void addOwner(String ownerId) {
+        ownerIds.add(ownerId);
+    }
+
+    synchronized void addVehicle(String vehicleId) {
+        vehicleIds.add(vehicleId);
+    }
+
+    synchronized String pickOwner(double skew, RandomGenerator random) {
+        return ownerIds.get(SkewedDistribution.index(ownerIds.size(), skew, random));
+    }
+
+    synchronized String pickVehicle(double skew, RandomGenerator random) {
+        return vehicleIds.get(SkewedDistribution.index(vehicleIds.size(), skew, random));
+    }
+
+    synchronized void release(ActiveOrder order) {
+        activeOrders.add(order);
+    }
+
+    synchronized ActiveOrder claimOrder(RandomGenerator random) {
+        if (activeOrders.isEmpty()) {
+            return null;
+        }
+        int index = random.nextInt(activeOrders.size());
+        ActiveOrder order = activeOrders.get(index);
+        activeOrders.set(index, activeOrders.getLast());
+        activeOrders.removeLast();
+        return order;
+    }
+
+    synchronized int owners() {
+        return ownerIds.size();
+    }
+
+    synchronized int vehicles() {
+        return vehicleIds.size();
+    }
+
+    synchronized int activeOrders() {
+        return activeOrders.size();
+    }
+}
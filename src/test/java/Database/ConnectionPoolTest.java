@@ -0,0 +1,191 @@
+package Database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.sobczak.grzegorz.db.ConnectionPool;
+import pl.sobczak.grzegorz.db.PoolConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ConnectionPoolTest {
+    private final List<Connection> physicalConnections = new ArrayList<>();
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = ConnectionPool.start(this::newPhysicalConnection,
+                new PoolConfig(2, 0, Duration.ofMillis(50), Duration.ZERO, "SELECT 1", 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    private Connection newPhysicalConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        physicalConnections.add(connection);
+        return connection;
+    }
+
+    @Test
+    void shouldReusePhysicalConnectionAfterClose() throws SQLException {
+        // When
+        try (Connection first = pool.borrow()) {
+            first.prepareStatement("SELECT 1");
+        }
+        try (Connection second = pool.borrow()) {
+            second.prepareStatement("SELECT 2");
+        }
+
+        // Then
+        assertEquals(1, physicalConnections.size());
+        verify(physicalConnections.getFirst(), never()).close();
+
+        ConnectionPool.PoolStats stats = pool.stats();
+        assertEquals(1, stats.created());
+        assertEquals(2, stats.borrowed());
+        assertEquals(1, stats.idle());
+        assertEquals(0, stats.active());
+    }
+
+    @Test
+    void shouldTimeOutWhenPoolIsExhausted() throws SQLException {
+        // Given
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+
+        // When & Then
+        assertThrows(SQLTimeoutException.class, () -> pool.borrow());
+        assertEquals(1, pool.stats().borrowTimeouts());
+        assertEquals(2, pool.stats().active());
+
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void shouldRejectUseOfConnectionReturnedToPool() throws SQLException {
+        // Given
+        Connection connection = pool.borrow();
+        connection.close();
+
+        // When & Then
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, () -> connection.prepareStatement("SELECT 1"));
+    }
+
+    @Test
+    void shouldRollBackOpenTransactionOnReturn() throws SQLException {
+        // Given
+        Connection connection = pool.borrow();
+        Connection physical = physicalConnections.getFirst();
+        when(physical.getAutoCommit()).thenReturn(false);
+
+        // When
+        connection.close();
+
+        // Then
+        verify(physical).rollback();
+        verify(physical).setAutoCommit(true);
+    }
+
+    @Test
+    void shouldEvictIdleConnectionsAboveMinimum() throws SQLException {
+        // Given
+        ConnectionPool evictingPool = ConnectionPool.start(this::newPhysicalConnection,
+                new PoolConfig(2, 0, Duration.ofMillis(50), Duration.ofNanos(1), "SELECT 1", 0));
+        evictingPool.borrow().close();
+
+        // When
+        evictingPool.evictIdle();
+
+        // Then
+        assertEquals(0, evictingPool.stats().idle());
+        assertEquals(1, evictingPool.stats().destroyed());
+        verify(physicalConnections.getFirst()).close();
+        evictingPool.close();
+    }
+
+    @Test
+    void shouldKeepMinimumIdleConnectionsOpenAcrossEviction() throws SQLException {
+        // Given
+        ConnectionPool warmPool = ConnectionPool.start(this::newPhysicalConnection,
+                new PoolConfig(2, 1, Duration.ofMillis(50), Duration.ZERO, "SELECT 1", 0));
+        assertEquals(1, warmPool.stats().idle());
+
+        // When
+        try (Connection first = warmPool.borrow(); Connection second = warmPool.borrow()) {
+            first.getAutoCommit();
+            second.getAutoCommit();
+        }
+        warmPool.evictIdle();
+
+        // Then
+        assertEquals(2, warmPool.stats().created());
+        assertEquals(1, warmPool.stats().idle());
+        assertEquals(1, warmPool.stats().destroyed());
+        warmPool.close();
+    }
+
+    @Test
+    void shouldDestroyConnectionReturnedAfterPoolClosed() throws SQLException {
+        // Given
+        Connection borrowed = pool.borrow();
+
+        // When
+        pool.close();
+        borrowed.close();
+
+        // Then
+        assertEquals(0, pool.stats().idle());
+        verify(physicalConnections.getFirst()).close();
+    }
+
+    @Test
+    void shouldServeRepeatedStatementsFromCacheAcrossBorrows() throws SQLException {
+        // Given
+        ConnectionPool cachingPool = ConnectionPool.start(this::newPhysicalConnection,
+                new PoolConfig(1, 0, Duration.ofMillis(50), Duration.ZERO, "SELECT 1", 8));
+        String sql = "SELECT * FROM users WHERE id = ?";
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = cachingPool.borrow();
+                 PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, "u" + i);
+            }
+        }
+
+        // Then
+        verify(physicalConnections.getFirst(), times(1)).prepareStatement(sql);
+        assertEquals(2, cachingPool.stats().statementCacheHits());
+        assertEquals(1, cachingPool.stats().statementCacheMisses());
+        cachingPool.close();
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new PoolConfig(0, 0, Duration.ZERO, Duration.ZERO, "SELECT 1", 0));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                new PoolConfig(2, 3, Duration.ZERO, Duration.ZERO, "SELECT 1", 0));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                new PoolConfig(2, 0, Duration.ZERO, Duration.ZERO, "SELECT 1", -1));
+    }
+}
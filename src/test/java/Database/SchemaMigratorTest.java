@@ -0,0 +1,274 @@
+package Database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.sobczak.grzegorz.db.Migration;
+import pl.sobczak.grzegorz.db.SchemaMigrator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMigratorTest {
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void shouldMigrateEmptyDatabaseToLatestVersion() throws SQLException {
+        // Given
+        SchemaMigrator migrator = new SchemaMigrator();
+
+        // When
+        int applied = migrator.migrate(connection);
+
+        // Then
+        assertEquals(migrator.latestVersion(), applied);
+        assertEquals(migrator.latestVersion(), migrator.currentVersion(connection));
+        assertTrue(indexNames().containsAll(List.of(
+                "idx_vehicles_owner_created", "idx_repair_orders_vehicle_created_total",
+                "idx_repair_orders_status_created_total", "idx_repair_orders_created_total",
+                "idx_parts_repair_order")));
+        assertFalse(indexNames().contains("idx_vehicles_owner"));
+        assertFalse(indexNames().contains("idx_repair_orders_vehicle_created"));
+        assertFalse(indexNames().contains("idx_repair_orders_status"));
+    }
+
+    @Test
+    void shouldBackfillVehicleCreationDateAndServeKeysetPagesFromIndex() throws SQLException {
+        // Given
+        new SchemaMigrator(SchemaMigrator.MIGRATIONS.subList(0, 2)).migrate(connection);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO users VALUES ('u1', 'Jan', 'Kowalski', 'jan@test.pl', 'x', 'USER', 1)");
+            stmt.execute("INSERT INTO vehicles VALUES ('v1', 'u1', 'Toyota', 'Corolla', '12345678901234567', 'Red')");
+        }
+
+        // When
+        new SchemaMigrator().migrate(connection);
+
+        // Then
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT createdAt FROM vehicles WHERE id = 'v1'")) {
+                assertNotNull(rs.getString(1));
+            }
+            try (ResultSet rs = stmt.executeQuery("EXPLAIN QUERY PLAN SELECT * FROM repair_orders " +
+                    "WHERE vehicleId = 'v1' AND (createdAt, id) > ('2024-01-01T00:00', 'o1') ORDER BY createdAt, id LIMIT 21")) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString("detail")).append('\n');
+                }
+                assertTrue(plan.toString().contains("idx_repair_orders_vehicle_created_total"), plan.toString());
+                assertFalse(plan.toString().contains("TEMP B-TREE"), plan.toString());
+            }
+        }
+    }
+
+    @Test
+    void shouldConvertUuidIdentifiersToBlobsAndKeepOtherIdsAsText() throws SQLException {
+        // Given
+        String userId = "5f0c6a8e-3b1d-4c2a-9e7f-0a1b2c3d4e5f";
+        String vehicleId = "0d9e8f7a-6b5c-4d3e-8f2a-1b0c9d8e7f6a";
+        new SchemaMigrator(SchemaMigrator.MIGRATIONS.subList(0, 3)).migrate(connection);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON");
+            stmt.execute("INSERT INTO users VALUES ('" + userId + "', 'Jan', 'Kowalski', 'jan@test.pl', 'x', 'USER', 1)");
+            stmt.execute("INSERT INTO users VALUES ('legacy-user', 'Anna', 'Nowak', 'anna@test.pl', 'x', 'USER', 1)");
+            stmt.execute("INSERT INTO vehicles VALUES ('" + vehicleId + "', '" + userId + "', 'Toyota', 'Corolla', " +
+                    "'12345678901234567', 'Red', '2024-01-01T10:00')");
+        }
+
+        // When
+        new SchemaMigrator().migrate(connection);
+
+        // Then
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT typeof(id), length(id) FROM users WHERE email = 'jan@test.pl'")) {
+                assertEquals("blob", rs.getString(1));
+                assertEquals(16, rs.getInt(2));
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT typeof(id) FROM users WHERE email = 'anna@test.pl'")) {
+                assertEquals("text", rs.getString(1));
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT lower(hex(v.id)), COUNT(u.id) FROM vehicles v " +
+                    "JOIN users u ON u.id = v.ownerId")) {
+                assertEquals(vehicleId.replace("-", ""), rs.getString(1));
+                assertEquals(1, rs.getInt(2));
+            }
+            try (ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check")) {
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    @Test
+    void shouldConvertMoneyColumnsToIntegerGrosze() throws SQLException {
+        // Given
+        new SchemaMigrator(SchemaMigrator.MIGRATIONS.subList(0, 4)).migrate(connection);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO repair_orders(id, vehicleId, description, cost, status, createdAt) " +
+                    "VALUES ('o1', 'v1', 'repair', 250.29, 'OPEN', '2024-01-01T10:00')");
+            stmt.execute("INSERT INTO repair_orders(id, vehicleId, description, cost, status, createdAt) " +
+                    "VALUES ('o2', 'v1', 'repair', NULL, 'OPEN', '2024-01-01T11:00')");
+            stmt.execute("INSERT INTO parts(id, repairOrderId, partCode, name, description, price, quantity) " +
+                    "VALUES ('p1', 'o1', 'OIL', 'Oil', '', 45.1, 3)");
+        }
+
+        // When
+        new SchemaMigrator().migrate(connection);
+
+        // Then
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT cost, typeof(cost) FROM repair_orders WHERE id = 'o1'")) {
+                assertEquals(25029, rs.getLong(1));
+                assertEquals("integer", rs.getString(2));
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT cost FROM repair_orders WHERE id = 'o2'")) {
+                assertNull(rs.getObject(1));
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT price * quantity, typeof(price) FROM parts WHERE id = 'p1'")) {
+                assertEquals(13530, rs.getLong(1));
+                assertEquals("integer", rs.getString(2));
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT type FROM pragma_table_info('parts') WHERE name = 'price'")) {
+                assertEquals("INTEGER", rs.getString(1));
+            }
+        }
+    }
+
+    @Test
+    void shouldBackfillAndMaintainOrderTotals() throws SQLException {
+        // Given
+        new SchemaMigrator(SchemaMigrator.MIGRATIONS.subList(0, 5)).migrate(connection);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO repair_orders(id, vehicleId, description, cost, status, createdAt) " +
+                    "VALUES ('o1', 'v1', 'repair', 10000, 'OPEN', '2024-01-01T10:00')");
+            stmt.execute("INSERT INTO parts(id, repairOrderId, partCode, name, description, price, quantity) " +
+                    "VALUES ('p1', 'o1', 'OIL', 'Oil', '', 4500, 2)");
+        }
+
+        // When
+        new SchemaMigrator().migrate(connection);
+
+        // Then
+        try (Statement stmt = connection.createStatement()) {
+            assertEquals(List.of(9000L, 19000L), orderTotals(stmt, "o1"));
+
+            stmt.execute("INSERT INTO parts(id, repairOrderId, partCode, name, description, price, quantity) " +
+                    "VALUES ('p2', 'o1', 'FIL', 'Filter', '', 3000, 1)");
+            stmt.execute("UPDATE parts SET quantity = 5 WHERE id = 'p1'");
+            stmt.execute("UPDATE repair_orders SET cost = 20000 WHERE id = 'o1'");
+            assertEquals(List.of(25500L, 45500L), orderTotals(stmt, "o1"));
+
+            stmt.execute("DELETE FROM parts WHERE id = 'p2'");
+            assertEquals(List.of(22500L, 42500L), orderTotals(stmt, "o1"));
+
+            try (ResultSet rs = stmt.executeQuery("EXPLAIN QUERY PLAN SELECT SUM(totalCost) FROM repair_orders " +
+                    "WHERE status = 'OPEN' AND createdAt >= '2024-01-01' AND createdAt < '2024-02-01'")) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString("detail")).append('\n');
+                }
+                assertTrue(plan.toString().contains("COVERING INDEX idx_repair_orders_status_created_total"), plan.toString());
+            }
+        }
+    }
+
+    @Test
+    void shouldNotReapplyMigrations() throws SQLException {
+        // Given
+        SchemaMigrator migrator = new SchemaMigrator();
+        migrator.migrate(connection);
+
+        // When
+        int applied = migrator.migrate(connection);
+
+        // Then
+        assertEquals(0, applied);
+    }
+
+    @Test
+    void shouldUpgradeExistingDatabaseWithoutLosingData() throws SQLException {
+        // Given
+        SchemaMigrator baseSchema = new SchemaMigrator(SchemaMigrator.MIGRATIONS.subList(0, 1));
+        baseSchema.migrate(connection);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO users VALUES ('u1', 'Jan', 'Kowalski', 'jan@test.pl', 'x', 'USER', 1)");
+        }
+
+        // When
+        new SchemaMigrator().migrate(connection);
+
+        // Then
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
+            assertEquals(1, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void shouldRollBackFailedMigration() throws SQLException {
+        // Given
+        List<Migration> migrations = new ArrayList<>(SchemaMigrator.MIGRATIONS.subList(0, 1));
+        migrations.add(Migration.sql(2, "Broken migration",
+                "CREATE TABLE audit (id TEXT)",
+                "INSERT INTO missing_table VALUES (1)"));
+        SchemaMigrator migrator = new SchemaMigrator(migrations);
+
+        // When & Then
+        assertThrows(SQLException.class, () -> migrator.migrate(connection));
+        assertEquals(1, migrator.currentVersion(connection));
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM sqlite_master WHERE name = 'audit'")) {
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void shouldRefuseDatabaseNewerThanSupported() throws SQLException {
+        // Given
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA user_version = 999");
+        }
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> new SchemaMigrator().migrate(connection));
+    }
+
+    @Test
+    void shouldRejectGapsInMigrationNumbers() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new SchemaMigrator(List.of(Migration.sql(2, "Out of order", "SELECT 1"))));
+    }
+
+    private List<Long> orderTotals(Statement stmt, String orderId) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT partsTotal, totalCost FROM repair_orders WHERE id = '" + orderId + "'")) {
+            return List.of(rs.getLong(1), rs.getLong(2));
+        }
+    }
+
+    private List<String> indexNames() throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type = 'index'")) {
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,131 @@
+package Database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.sobczak.grzegorz.dao.RepairOrderDao;
+import pl.sobczak.grzegorz.dao.SlowQueryLog;
+import pl.sobczak.grzegorz.dao.UserDao;
+import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.db.SchemaMigrator;
+import pl.sobczak.grzegorz.model.Part;
+import pl.sobczak.grzegorz.model.RepairOrder;
+import pl.sobczak.grzegorz.model.User;
+import pl.sobczak.grzegorz.model.Vehicle;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryLogTest {
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void restoreGlobalLog() {
+        SlowQueryLog.global().setThreshold(Duration.ZERO);
+        SlowQueryLog.global().setSink(System.err::println);
+    }
+
+    @Test
+    void shouldLogSlowStatementWithParameterShapesAndQueryPlan() throws Exception {
+        // Given
+        BlockingQueue<String> entries = new LinkedBlockingQueue<>();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("garage.db"))) {
+            new SchemaMigrator().migrate(conn);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP INDEX idx_parts_repair_order");
+            }
+            User owner = new User("Jan", "Kowalski", "jan@kowalski.pl", "secret1");
+            new UserDao(conn).saveUser(owner);
+            Vehicle vehicle = new Vehicle(owner.getUserId(), "Toyota", "Corolla", "12345678901234567", "Red");
+            new VehicleDao(conn).save(vehicle);
+            RepairOrderDao repairOrderDao = new RepairOrderDao(conn);
+            RepairOrder order = new RepairOrder(vehicle.getId(), "Oil change", 150.0);
+            order.addPart(new Part(order.getId(), "OIL-5W30", "Oil 5W30", 45.0, 5));
+            repairOrderDao.save(order);
+
+            // When
+            SlowQueryLog.global().setSink(entries::add);
+            SlowQueryLog.global().setThreshold(Duration.ofNanos(1));
+            repairOrderDao.findById(order.getId());
+            SlowQueryLog.global().setThreshold(Duration.ZERO);
+        }
+
+        // Then
+        String entry;
+        do {
+            entry = entries.poll(5, TimeUnit.SECONDS);
+            assertNotNull(entry, "Expected a slow query entry for the parts lookup");
+        } while (!entry.contains("FROM parts"));
+        assertTrue(entry.contains("in RepairOrderDao.findById"));
+        assertTrue(entry.contains("parameters: [BLOB(16)]"));
+        assertTrue(entry.contains("SCAN parts"), entry);
+    }
+
+    @Test
+    void shouldLogInMemoryStatementWithoutQueryPlan() throws Exception {
+        // Given
+        BlockingQueue<String> entries = new LinkedBlockingQueue<>();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            new SchemaMigrator().migrate(conn);
+            UserDao userDao = new UserDao(conn);
+            userDao.saveUser(new User("Jan", "Kowalski", "jan@kowalski.pl", "secret1"));
+
+            // When
+            SlowQueryLog.global().setSink(entries::add);
+            SlowQueryLog.global().setThreshold(Duration.ofNanos(1));
+            userDao.getUserByEmail("jan@kowalski.pl");
+            SlowQueryLog.global().setThreshold(Duration.ZERO);
+        }
+
+        // Then
+        String entry;
+        do {
+            entry = entries.poll(5, TimeUnit.SECONDS);
+            assertNotNull(entry, "Expected a slow query entry for the e-mail lookup");
+        } while (!entry.contains("WHERE email = ?"));
+        assertTrue(entry.contains("parameters: [TEXT(15)]"));
+        assertTrue(entry.contains("unavailable (not a file-backed database)"), entry);
+    }
+
+    @Test
+    void shouldDropEntriesAfterClose() {
+        // Given
+        BlockingQueue<String> entries = new LinkedBlockingQueue<>();
+        SlowQueryLog log = new SlowQueryLog(Duration.ofNanos(1), entries::add);
+
+        // When
+        log.close();
+        log.record(new SlowQueryLog.SlowQuery("SELECT 1", "UserDao.findById", 1_000, 1, false, 0,
+                List.of(), null));
+
+        // Then
+        assertTrue(entries.isEmpty());
+        assertEquals(1, log.dropped());
+    }
+
+    @Test
+    void shouldIgnoreStatementsBelowThreshold() {
+        // Given
+        BlockingQueue<String> entries = new LinkedBlockingQueue<>();
+        SlowQueryLog log = new SlowQueryLog(Duration.ofSeconds(1), entries::add);
+
+        // When
+        log.record(new SlowQueryLog.SlowQuery("SELECT 1", "UserDao.findById", 1_000, 1, false, 0,
+                List.of(), null));
+
+        // Then
+        assertTrue(entries.isEmpty());
+        assertEquals(0, log.logged());
+    }
+}
@@ -0,0 +1,130 @@
+package Database;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.sobczak.grzegorz.dao.RepairOrderDao;
+import pl.sobczak.grzegorz.dao.UserDao;
+import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.db.SchemaMigrator;
+import pl.sobczak.grzegorz.model.Part;
+import pl.sobczak.grzegorz.model.RepairOrder;
+import pl.sobczak.grzegorz.model.User;
+import pl.sobczak.grzegorz.model.Vehicle;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlEventTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldRecordStatementAndTransactionEventsForRepairOrders() throws SQLException, IOException {
+        // Given
+        Path recordingFile = dir.resolve("sql.jfr");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("garage.db"))) {
+            new SchemaMigrator().migrate(conn);
+            User owner = new User("Jan", "Kowalski", "jan@kowalski.pl", "secret1");
+            new UserDao(conn).saveUser(owner);
+            Vehicle vehicle = new Vehicle(owner.getUserId(), "Toyota", "Corolla", "12345678901234567", "Red");
+            new VehicleDao(conn).save(vehicle);
+            RepairOrderDao repairOrderDao = new RepairOrderDao(conn);
+            RepairOrder order = new RepairOrder(vehicle.getId(), "Oil change", 150.0);
+            order.addPart(new Part(order.getId(), "OIL-5W30", "Oil 5W30", 45.0, 5));
+            order.addPart(new Part(order.getId(), "FIL-001", "Oil filter", 30.0, 1));
+
+            // When
+            try (Recording recording = new Recording()) {
+                recording.enable("pl.sobczak.grzegorz.SqlStatement");
+                recording.enable("pl.sobczak.grzegorz.SqlTransaction");
+                recording.start();
+                repairOrderDao.save(order);
+                repairOrderDao.findByVehicleId(vehicle.getId());
+                assertThrows(RuntimeException.class, () -> repairOrderDao.save(order));
+                recording.stop();
+                recording.dump(recordingFile);
+            }
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        List<RecordedEvent> statements = events.stream()
+                .filter(event -> event.getEventType().getName().equals("pl.sobczak.grzegorz.SqlStatement"))
+                .toList();
+        List<String> transactions = events.stream()
+                .filter(event -> event.getEventType().getName().equals("pl.sobczak.grzegorz.SqlTransaction"))
+                .map(event -> event.getString("daoMethod") + ":" + event.getString("action"))
+                .toList();
+
+        RecordedEvent partBatch = statements.stream()
+                .filter(event -> event.getString("sql").startsWith("INSERT INTO parts"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("RepairOrderDao.save", partBatch.getString("daoMethod"));
+        assertTrue(partBatch.getBoolean("batched"));
+        assertEquals(2, partBatch.getInt("batchSize"));
+        assertEquals(2, partBatch.getLong("rowCount"));
+
+        RecordedEvent partsQuery = statements.stream()
+                .filter(event -> event.getString("sql").startsWith("SELECT * FROM parts"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("RepairOrderDao.findByVehicleId", partsQuery.getString("daoMethod"));
+        assertFalse(partsQuery.getBoolean("batched"));
+        assertEquals(2, partsQuery.getLong("rowCount"));
+
+        assertEquals(List.of("RepairOrderDao.save:begin", "RepairOrderDao.save:commit",
+                "RepairOrderDao.save:begin", "RepairOrderDao.save:rollback"), transactions);
+    }
+
+    @Test
+    void shouldExcludeCallerTimeBetweenRowsFromStatementDuration() throws SQLException, IOException, InterruptedException {
+        // Given
+        Path recordingFile = dir.resolve("stream.jfr");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("garage.db"))) {
+            new SchemaMigrator().migrate(conn);
+            User owner = new User("Jan", "Kowalski", "jan@kowalski.pl", "secret1");
+            new UserDao(conn).saveUser(owner);
+            Vehicle vehicle = new Vehicle(owner.getUserId(), "Toyota", "Corolla", "12345678901234567", "Red");
+            new VehicleDao(conn).save(vehicle);
+            RepairOrderDao repairOrderDao = new RepairOrderDao(conn);
+            for (int i = 0; i < 3; i++) {
+                repairOrderDao.save(new RepairOrder(vehicle.getId(), "Repair " + i, 100.0));
+            }
+
+            // When
+            try (Recording recording = new Recording()) {
+                recording.enable("pl.sobczak.grzegorz.SqlStatement");
+                recording.start();
+                try (var orders = repairOrderDao.streamByVehicleId(vehicle.getId())) {
+                    for (var iterator = orders.iterator(); iterator.hasNext(); ) {
+                        iterator.next();
+                        Thread.sleep(100);
+                    }
+                }
+                recording.stop();
+                recording.dump(recordingFile);
+            }
+        }
+
+        // Then
+        RecordedEvent ordersQuery = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().equals("pl.sobczak.grzegorz.SqlStatement"))
+                .filter(event -> event.getString("sql").startsWith("SELECT ro.*"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(3, ordersQuery.getLong("rowCount"));
+        assertTrue(ordersQuery.getDuration().toMillis() < 100);
+        assertTrue(ordersQuery.getDuration("databaseTime").toMillis() < 100);
+    }
+}
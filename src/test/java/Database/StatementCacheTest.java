@@ -0,0 +1,110 @@
+package Database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.sobczak.grzegorz.db.StatementCache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class StatementCacheTest {
+    private final Map<String, PreparedStatement> physicalStatements = new HashMap<>();
+    private Connection mockConnection;
+    private StatementCache.Counters counters;
+    private StatementCache cache;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        mockConnection = mock(Connection.class);
+        when(mockConnection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            PreparedStatement statement = mock(PreparedStatement.class);
+            physicalStatements.put(invocation.getArgument(0), statement);
+            return statement;
+        });
+        counters = new StatementCache.Counters();
+        cache = new StatementCache(mockConnection, 2, counters);
+    }
+
+    @Test
+    void shouldReuseStatementAfterClose() throws SQLException {
+        // When
+        PreparedStatement first = cache.prepare("SELECT 1");
+        first.setString(1, "a");
+        first.close();
+        PreparedStatement second = cache.prepare("SELECT 1");
+
+        // Then
+        assertSame(first, second);
+        verify(mockConnection, times(1)).prepareStatement("SELECT 1");
+        verify(physicalStatements.get("SELECT 1")).clearParameters();
+        verify(physicalStatements.get("SELECT 1"), never()).close();
+        assertEquals(1, counters.hits());
+        assertEquals(1, counters.misses());
+        assertEquals(0.5, counters.hitRatio());
+    }
+
+    @Test
+    void shouldRejectUseAfterStatementReturnedToCache() throws SQLException {
+        // Given
+        PreparedStatement statement = cache.prepare("SELECT 1");
+        statement.close();
+
+        // When & Then
+        assertTrue(statement.isClosed());
+        assertThrows(SQLException.class, () -> statement.setString(1, "a"));
+    }
+
+    @Test
+    void shouldHandOutUncachedStatementWhenSameSqlIsInUse() throws SQLException {
+        // Given
+        PreparedStatement inUse = cache.prepare("SELECT 1");
+
+        // When
+        PreparedStatement nested = cache.prepare("SELECT 1");
+        nested.close();
+
+        // Then
+        assertNotSame(inUse, nested);
+        verify(mockConnection, times(2)).prepareStatement("SELECT 1");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedStatement() throws SQLException {
+        // Given
+        cache.prepare("SELECT 1").close();
+        cache.prepare("SELECT 2").close();
+        cache.prepare("SELECT 1").close();
+
+        // When
+        cache.prepare("SELECT 3").close();
+
+        // Then
+        assertEquals(2, cache.size());
+        assertEquals(1, counters.evictions());
+        verify(physicalStatements.get("SELECT 2")).close();
+        verify(physicalStatements.get("SELECT 1"), never()).close();
+    }
+
+    @Test
+    void shouldCloseAllStatementsWhenCacheIsClosed() throws SQLException {
+        // Given
+        cache.prepare("SELECT 1").close();
+        cache.prepare("SELECT 2").close();
+
+        // When
+        cache.close();
+
+        // Then
+        assertEquals(0, cache.size());
+        verify(physicalStatements.get("SELECT 1")).close();
+        verify(physicalStatements.get("SELECT 2")).close();
+    }
+}
@@ -0,0 +1,63 @@
+package Database;
+
+import org.junit.jupiter.api.Test;
+import pl.sobczak.grzegorz.db.DatabaseConfig;
+import pl.sobczak.grzegorz.db.StorageProfile;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StorageProfileTest {
+
+    @Test
+    void shouldApplyAllPragmasOfProfile() throws SQLException {
+        // Given
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+
+        // When
+        StorageProfile.DURABLE.apply(connection);
+
+        // Then
+        verify(statement).execute("PRAGMA busy_timeout = 10000");
+        verify(statement).execute("PRAGMA journal_mode = WAL");
+        verify(statement).execute("PRAGMA synchronous = FULL");
+        verify(statement).execute("PRAGMA cache_size = -8000");
+        verify(statement).execute("PRAGMA mmap_size = 0");
+        verify(statement).execute("PRAGMA temp_store = DEFAULT");
+        verify(statement).close();
+    }
+
+    @Test
+    void shouldResolveProfileFromConfiguration() {
+        // Given
+        Properties properties = new Properties();
+        properties.setProperty("garage.storage.profile", " throughput ");
+
+        // When
+        StorageProfile profile = StorageProfile.from(new DatabaseConfig(properties));
+
+        // Then
+        assertEquals(StorageProfile.THROUGHPUT, profile);
+        assertEquals("OFF", profile.getSynchronous());
+    }
+
+    @Test
+    void shouldDefaultToBalancedProfile() {
+        assertEquals(StorageProfile.BALANCED, StorageProfile.from(new DatabaseConfig(new Properties())));
+    }
+
+    @Test
+    void shouldRejectUnknownProfile() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                StorageProfile.fromName("turbo"));
+
+        assertEquals("Unknown storage profile: turbo", exception.getMessage());
+    }
+}
@@ -0,0 +1,209 @@
+package Import;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.sobczak.grzegorz.dao.UserDao;
+import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.db.SchemaMigrator;
+import pl.sobczak.grzegorz.importer.CsvImporter;
+import pl.sobczak.grzegorz.importer.ImportCheckpoint;
+import pl.sobczak.grzegorz.importer.ImportOptions;
+import pl.sobczak.grzegorz.importer.ImportReport;
+import pl.sobczak.grzegorz.importer.ImportTarget;
+import pl.sobczak.grzegorz.model.User;
+import pl.sobczak.grzegorz.model.Vehicle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class CsvImporterTest {
+    private static final String HEADER = "id,ownerId,brand,model,vin,color\n";
+
+    @TempDir
+    Path dir;
+
+    private Path writeCsv(String content) throws IOException {
+        Path file = dir.resolve("vehicles.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private String vehicleRows(int from, int to) {
+        StringBuilder csv = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            csv.append("v").append(i).append(",own1,Toyota,Corolla,").append(String.format("VIN%014d", i)).append(",Red\n");
+        }
+        return csv.toString();
+    }
+
+    private ImportTarget<Vehicle> recordingTarget(List<Vehicle> written) {
+        ImportTarget<Vehicle> vehicles = ImportTarget.vehicles(mock(VehicleDao.class), mock(UserDao.class));
+        return new ImportTarget<>(vehicles.name(), vehicles.requiredColumns(), vehicles.mapper(), batch -> {
+            written.addAll(batch);
+            return batch.size();
+        });
+    }
+
+    @Test
+    void shouldParseQuotedFieldsLineBreaksAndByteOrderMark() throws IOException {
+        // Given
+        Path csv = writeCsv("\uFEFF" + HEADER.replace("\n", "\r\n")
+                + "v1,own1,\"Alfa, Romeo\",\"Giulia\r\nQV\",12345678901234567,\"Rosso \"\"Competizione\"\"\"\r\n");
+        List<Vehicle> written = new ArrayList<>();
+
+        // When
+        ImportReport report = new CsvImporter(ImportOptions.defaults()).importFile(csv, recordingTarget(written));
+
+        // Then
+        assertEquals(1, report.imported());
+        assertEquals("Alfa, Romeo", written.getFirst().getBrand());
+        assertEquals("Giulia\r\nQV", written.getFirst().getModel());
+        assertEquals("Rosso \"Competizione\"", written.getFirst().getColor());
+    }
+
+    @Test
+    void shouldRejectInvalidRowsWithoutStoppingImport() throws IOException {
+        // Given
+        Path csv = writeCsv(HEADER + vehicleRows(0, 3) + "v9,own1,Toyota,Corolla,SHORT,Red\nv10,own1\n" + vehicleRows(3, 5));
+        VehicleDao vehicleDao = mock(VehicleDao.class);
+        UserDao userDao = mock(UserDao.class);
+        when(userDao.findExistingIds(anyCollection())).thenReturn(Set.of("own1"));
+        when(vehicleDao.saveAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            List<Vehicle> batch = invocation.getArgument(0);
+            Set<String> inserted = new HashSet<>();
+            batch.stream().filter(v -> !v.getId().equals("v0")).forEach(v -> inserted.add(v.getId()));
+            return inserted;
+        });
+
+        // When
+        ImportReport report = new CsvImporter(ImportOptions.defaults().withBatchSize(2))
+                .importFile(csv, ImportTarget.vehicles(vehicleDao, userDao));
+
+        // Then
+        assertEquals(7, report.rowsRead());
+        assertEquals(4, report.imported());
+        assertEquals(1, report.duplicates());
+        assertEquals(2, report.rejected());
+        assertEquals(List.of("row 4: VIN must be exactly 17 characters", "row 5: Expected 6 columns but found 2"),
+                report.rejectSamples());
+        assertTrue(report.rowsPerSecond() > 0);
+    }
+
+    @Test
+    void shouldWriteBatchesInFileOrderWhenParsingInParallel() throws IOException {
+        // Given
+        Path csv = writeCsv(HEADER + vehicleRows(0, 5_000));
+        List<Vehicle> written = Collections.synchronizedList(new ArrayList<>());
+
+        // When
+        ImportReport report = new CsvImporter(new ImportOptions(64, 4, 3, 1024)).importFile(csv, recordingTarget(written));
+
+        // Then
+        assertEquals(5_000, report.imported());
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals("v" + i, written.get(i).getId());
+        }
+    }
+
+    @Test
+    void shouldResumeFromCheckpointAfterFailedBatch() throws IOException {
+        // Given
+        Path csv = writeCsv(HEADER + vehicleRows(0, 10));
+        Path checkpoint = ImportCheckpoint.defaultLocation(csv);
+        List<Vehicle> written = new ArrayList<>();
+        ImportTarget<Vehicle> working = recordingTarget(written);
+        ImportTarget<Vehicle> failingOnSecondBatch = new ImportTarget<>(working.name(), working.requiredColumns(),
+                working.mapper(), batch -> {
+            if (!written.isEmpty()) {
+                throw new RuntimeException("database is locked");
+            }
+            return working.writer().applyAsInt(batch);
+        });
+        CsvImporter importer = new CsvImporter(new ImportOptions(4, 1, 1, 1024));
+
+        // When
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> importer.importFile(csv, failingOnSecondBatch));
+        long savedRows = ImportCheckpoint.load(checkpoint).orElseThrow().rows();
+        ImportReport resumed = importer.importFile(csv, working);
+
+        // Then
+        assertTrue(failure.getMessage().contains("rows 5-8"));
+        assertEquals(4, savedRows);
+        assertEquals(4, resumed.resumedFromRow());
+        assertEquals(6, resumed.rowsRead());
+        assertEquals(10, written.size());
+        assertEquals("v4", written.get(4).getId());
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    void shouldRejectOrphanRowsInsteadOfFailingBatch() throws IOException, SQLException {
+        // Given
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("garage.db"))) {
+            new SchemaMigrator().migrate(conn);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA foreign_keys = ON");
+            }
+            User owner = new User("Jan", "Kowalski", "jan@kowalski.pl", "secret1");
+            UserDao userDao = new UserDao(conn);
+            userDao.saveUser(owner);
+            String missingOwner = UUID.randomUUID().toString();
+            Path csv = writeCsv(HEADER
+                    + "v1," + owner.getUserId() + ",Toyota,Corolla,12345678901234567,Red\n"
+                    + "v2," + missingOwner + ",Toyota,Yaris,12345678901234568,Blue\n"
+                    + "v3," + owner.getUserId() + ",Toyota,Auris,12345678901234569,Black\n");
+            VehicleDao vehicleDao = new VehicleDao(conn);
+
+            // When
+            ImportReport report = new CsvImporter(ImportOptions.defaults())
+                    .importFile(csv, ImportTarget.vehicles(vehicleDao, userDao));
+
+            // Then
+            assertEquals(2, report.imported());
+            assertEquals(1, report.rejected());
+            assertEquals(List.of("row 2: owner " + missingOwner + " does not exist"), report.rejectSamples());
+            assertTrue(vehicleDao.findById("v2").isEmpty());
+            assertEquals(2, vehicleDao.findByOwnerId(owner.getUserId()).size());
+            assertFalse(Files.exists(ImportCheckpoint.defaultLocation(csv)));
+        }
+    }
+
+    @Test
+    void shouldRefuseCheckpointOfAnotherFile() throws IOException {
+        // Given
+        Path csv = writeCsv(HEADER + vehicleRows(0, 2));
+        new ImportCheckpoint(dir.resolve("other.csv").toString(), 10, 1).save(ImportCheckpoint.defaultLocation(csv));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () ->
+                new CsvImporter(ImportOptions.defaults()).importFile(csv, recordingTarget(new ArrayList<>())));
+    }
+
+    @Test
+    void shouldRejectHeaderWithoutRequiredColumns() throws IOException {
+        // Given
+        Path csv = writeCsv("id,brand\nv1,Toyota\n");
+
+        // When & Then
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                new CsvImporter(ImportOptions.defaults()).importFile(csv, recordingTarget(new ArrayList<>())));
+        assertTrue(error.getMessage().contains("ownerId"));
+    }
+}
@@ -0,0 +1,103 @@
+package Metrics;
+
+import org.junit.jupiter.api.Test;
+import pl.sobczak.grzegorz.metrics.LatencyHistogram;
+import pl.sobczak.grzegorz.metrics.MetricsRegistry;
+import pl.sobczak.grzegorz.metrics.OperationMetrics;
+import pl.sobczak.grzegorz.metrics.OperationSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    void shouldReportPercentilesWithinBucketPrecision() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // Then
+        assertEquals(10_000, snapshot.count());
+        assertEquals(5_000_000, snapshot.percentile(0.50), 5_000_000 * 0.035);
+        assertEquals(9_900_000, snapshot.percentile(0.99), 9_900_000 * 0.035);
+        assertEquals(9_990_000, snapshot.percentile(0.999), 9_990_000 * 0.035);
+        assertEquals(10_000_000, snapshot.max());
+        assertEquals(10_000_000, snapshot.percentile(1.0));
+    }
+
+    @Test
+    void shouldCountCallsErrorsAndReturnedRows() {
+        // Given
+        MetricsRegistry registry = new MetricsRegistry(true);
+        OperationMetrics findAll = registry.operation("VehicleDao.findByOwnerId");
+
+        // When
+        findAll.call(() -> List.of("a", "b", "c"));
+        findAll.call(() -> Optional.of("d"));
+        assertThrows(IllegalStateException.class, () -> findAll.run(() -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        // Then
+        OperationSnapshot snapshot = registry.snapshot().operation("VehicleDao.findByOwnerId").orElseThrow();
+        assertEquals(3, snapshot.calls());
+        assertEquals(1, snapshot.errors());
+        assertEquals(4, snapshot.rows());
+        assertTrue(snapshot.p999Nanos() >= snapshot.p50Nanos());
+        assertSame(findAll, registry.operation("VehicleDao.findByOwnerId"));
+    }
+
+    @Test
+    void shouldSkipRecordingWhenDisabled() {
+        // Given
+        MetricsRegistry registry = new MetricsRegistry(false);
+        OperationMetrics operation = registry.operation("UserDao.getUserById");
+
+        // When
+        String result = operation.call(() -> "user");
+
+        // Then
+        assertEquals("user", result);
+        assertTrue(registry.snapshot().operations().isEmpty());
+    }
+
+    @Test
+    void shouldNotLoseUpdatesUnderConcurrentRecording() throws Exception {
+        // Given
+        MetricsRegistry registry = new MetricsRegistry(true);
+        OperationMetrics operation = registry.operation("RepairOrderDao.findById");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    operation.record(i, 1, false);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        OperationSnapshot snapshot = registry.snapshot().operation("RepairOrderDao.findById").orElseThrow();
+        assertEquals(100_000, snapshot.calls());
+        assertEquals(100_000, snapshot.rows());
+        assertEquals(24_999, snapshot.maxNanos());
+    }
+}
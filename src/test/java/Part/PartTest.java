@@ -2,6 +2,7 @@ package Part;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import pl.sobczak.grzegorz.model.Money;
 import pl.sobczak.grzegorz.model.Part;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,7 +22,7 @@ public class PartTest {
         assertEquals(orderId, part.getRepairOrderId());
         assertEquals("P1", part.getPartCode());
         assertEquals("Part1", part.getName());
-        assertEquals(50.0, part.getPrice());
+        assertEquals(Money.ofGrosze(5000), part.getPrice());
         assertEquals(1, part.getQuantity());
     }
 
@@ -29,9 +30,24 @@ public class PartTest {
     void shouldCalculateTotalPrice() {
         Part part = new Part(orderId, "P2", "Part2", 45.50, 4);
 
-        double total = part.getTotalPrice();
+        Money total = part.getTotalPrice();
 
-        assertEquals(182.00, total, 0.001);
+        assertEquals(Money.parse("182.00"), total);
+    }
+
+    @Test
+    void shouldKeepMoneyAmountsExact() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 1_000_000; i++) {
+            total = total.plus(Money.parse("0.10"));
+        }
+
+        assertEquals(Money.parse("100000.00"), total);
+        assertEquals(29, Money.of(0.29).grosze());
+        assertEquals("-12.05", Money.ofGrosze(-1205).toString());
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1.005"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("abc"));
+        assertThrows(ArithmeticException.class, () -> Money.ofGrosze(Long.MAX_VALUE).times(2));
     }
 
     @Test
@@ -4,7 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import pl.sobczak.grzegorz.dao.Page;
+import pl.sobczak.grzegorz.dao.PageCursor;
+import pl.sobczak.grzegorz.dao.PageRequest;
 import pl.sobczak.grzegorz.dao.RepairOrderDao;
+import pl.sobczak.grzegorz.dao.SortDirection;
+import pl.sobczak.grzegorz.model.Money;
 import pl.sobczak.grzegorz.model.Part;
 import pl.sobczak.grzegorz.model.RepairOrder;
 import pl.sobczak.grzegorz.model.RepairStatus;
@@ -13,11 +18,15 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 public class RepairOrderDaoTest {
@@ -54,13 +63,108 @@ public class RepairOrderDaoTest {
         verify(mockPreparedStatement).setString(1, order.getId());
         verify(mockPreparedStatement).setString(2, "vehicle-123");
         verify(mockPreparedStatement).setString(3, "repair");
-        verify(mockPreparedStatement).setDouble(4, 123);
+        verify(mockPreparedStatement).setLong(4, 12300);
         verify(mockPreparedStatement).setString(5, "OPEN");
-        verify(mockPreparedStatement, times(2)).executeUpdate();
+        verify(mockPreparedStatement, times(1)).executeUpdate();
+        verify(mockPreparedStatement, times(1)).addBatch();
+        verify(mockPreparedStatement, times(1)).executeBatch();
         verify(mockConnection).commit();
         verify(mockConnection).setAutoCommit(true);
     }
 
+    @Test
+    void shouldFlushPartInsertsInConfiguredBatchSize() throws SQLException {
+        // Given
+        RepairOrderDao batchingDao = new RepairOrderDao(mockConnection, 2);
+        RepairOrder order = new RepairOrder("123", "vehicle-123", "collision", 1000.0);
+        for (int i = 0; i < 5; i++) {
+            order.addPart(new Part("p" + i, "123", "P" + i, "Part" + i, "Desc", 10.0, 1));
+        }
+
+        // When
+        batchingDao.save(order);
+
+        // Then
+        verify(mockPreparedStatement, times(5)).addBatch();
+        verify(mockPreparedStatement, times(3)).executeBatch();
+        verify(mockPreparedStatement, times(1)).executeUpdate();
+        verify(mockConnection).commit();
+    }
+
+    @Test
+    void shouldSaveAllOrdersInSingleTransaction() throws SQLException {
+        // Given
+        RepairOrder first = new RepairOrder("o1", "vehicle-123", "repair1", 100.0);
+        first.addPart(new Part("p1", "o1", "P1", "Part1", "Desc", 10.0, 1));
+        RepairOrder second = new RepairOrder("o2", "vehicle-123", "repair2", 200.0);
+        second.addPart(new Part("p2", "o2", "P2", "Part2", "Desc", 20.0, 2));
+        second.addPart(new Part("p3", "o2", "P3", "Part3", "Desc", 30.0, 3));
+
+        // When
+        repairOrderDao.saveAll(List.of(first, second));
+
+        // Then
+        verify(mockConnection, times(1)).setAutoCommit(false);
+        verify(mockConnection, times(2)).prepareStatement(anyString());
+        verify(mockPreparedStatement, times(5)).addBatch();
+        verify(mockPreparedStatement, times(2)).executeBatch();
+        verify(mockPreparedStatement, never()).executeUpdate();
+        verify(mockConnection, times(1)).commit();
+        verify(mockConnection).setAutoCommit(true);
+    }
+
+    @Test
+    void shouldCountOnlyNewOrdersWhenSavingIfAbsent() throws SQLException {
+        // Given
+        RepairOrder first = new RepairOrder("o1", "vehicle-123", "repair1", 100.0);
+        RepairOrder second = new RepairOrder("o2", "vehicle-123", "repair2", 200.0);
+        when(mockPreparedStatement.executeBatch()).thenReturn(new int[]{1, 0});
+
+        // When
+        int inserted = repairOrderDao.saveAllIfAbsent(List.of(first, second));
+
+        // Then
+        assertEquals(1, inserted);
+        verify(mockConnection).prepareStatement(startsWith("INSERT OR IGNORE INTO repair_orders"));
+        verify(mockConnection, times(1)).commit();
+    }
+
+    @Test
+    void shouldSavePartsIfAbsentInSingleTransaction() throws SQLException {
+        // Given
+        List<Part> parts = List.of(
+                new Part("p1", "o1", "P1", "Part1", "Desc", 10.0, 1),
+                new Part("p2", "o1", "P2", "Part2", "Desc", 20.0, 2));
+        when(mockPreparedStatement.executeBatch()).thenReturn(new int[]{1, 1});
+
+        // When
+        int inserted = repairOrderDao.savePartsIfAbsent(parts);
+
+        // Then
+        assertEquals(2, inserted);
+        verify(mockConnection).prepareStatement(startsWith("INSERT OR IGNORE INTO parts"));
+        verify(mockPreparedStatement, times(2)).addBatch();
+        verify(mockConnection, times(1)).commit();
+    }
+
+    @Test
+    void saveAllShouldRollbackOnException() throws SQLException {
+        // Given
+        RepairOrder order = new RepairOrder("o1", "vehicle-123", "repair", 100.0);
+        when(mockPreparedStatement.executeBatch()).thenThrow(new SQLException("Batch failed"));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> repairOrderDao.saveAll(List.of(order)));
+        assertEquals("Error saving repair orders in bulk", exception.getMessage());
+        verify(mockConnection).rollback();
+        verify(mockConnection).setAutoCommit(true);
+    }
+
+    @Test
+    void shouldRejectNonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> new RepairOrderDao(mockConnection, 0));
+    }
+
     @Test
     void shouldFindRepairOrderById() throws SQLException {
         // Given
@@ -69,7 +173,7 @@ public class RepairOrderDaoTest {
         when(mockResultSet.getString("id")).thenReturn("123");
         when(mockResultSet.getString("vehicleId")).thenReturn("vehicle-123");
         when(mockResultSet.getString("description")).thenReturn("repair");
-        when(mockResultSet.getDouble("cost")).thenReturn(500.0);
+        when(mockResultSet.getLong("cost")).thenReturn(50000L);
         when(mockResultSet.getString("status")).thenReturn("IN_PROGRESS");
 
         ResultSet mockPartsResultSet = mock(ResultSet.class);
@@ -91,13 +195,13 @@ public class RepairOrderDaoTest {
     void shouldFindOrdersByVehicleId() throws SQLException {
         // Given
         ResultSet mockPartsResultSet = mock(ResultSet.class);
-        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet, mockPartsResultSet, mockPartsResultSet);
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet, mockPartsResultSet);
         when(mockResultSet.next()).thenReturn(true, true, false);
 
         when(mockResultSet.getString("id")).thenReturn("o1", "o2");
         when(mockResultSet.getString("vehicleId")).thenReturn("vehicle-123");
         when(mockResultSet.getString("description")).thenReturn("repair1", "repair2");
-        when(mockResultSet.getDouble("cost")).thenReturn(100.0, 200.0);
+        when(mockResultSet.getLong("cost")).thenReturn(10000L, 20000L);
         when(mockResultSet.getString("status")).thenReturn("OPEN", "COMPLETED");
         when(mockPartsResultSet.next()).thenReturn(false);
 
@@ -107,30 +211,91 @@ public class RepairOrderDaoTest {
         // Then
         assertEquals(2, result.size());
         assertEquals(RepairStatus.COMPLETED, result.get(1).getStatus());
-        verify(mockPreparedStatement).setString(1, "vehicle-123");
-        verify(mockPreparedStatement, times(3)).executeQuery();
+        verify(mockPreparedStatement, times(2)).setString(1, "vehicle-123");
+        verify(mockPreparedStatement, times(2)).executeQuery();
     }
 
     @Test
-    void findByVehicleIdShouldLoadPartsForEveryOrder() throws SQLException {
+    void findByVehicleIdShouldLoadPartsOfAllOrdersInSingleQuery() throws SQLException {
         // Given
         ResultSet rsOrders = mock(ResultSet.class);
         ResultSet rsParts = mock(ResultSet.class);
 
-        when(mockPreparedStatement.executeQuery()).thenReturn(rsOrders, rsParts, rsParts);
+        when(mockPreparedStatement.executeQuery()).thenReturn(rsOrders, rsParts);
         when(rsOrders.next()).thenReturn(true, true, false);
-        when(rsParts.next()).thenReturn(false);
-
         when(rsOrders.getString("id")).thenReturn("o1", "o2");
         when(rsOrders.getString("vehicleId")).thenReturn("vehicle-123");
         when(rsOrders.getString("status")).thenReturn("OPEN");
 
+        when(rsParts.next()).thenReturn(true, true, true, false);
+        when(rsParts.getString("id")).thenReturn("p1", "p2", "p3");
+        when(rsParts.getString("repairOrderId")).thenReturn("o2", "o1", "o2");
+        when(rsParts.getString("partCode")).thenReturn("PC1", "PC2", "PC3");
+        when(rsParts.getLong("price")).thenReturn(1000L, 2000L, 3000L);
+        when(rsParts.getInt("quantity")).thenReturn(1);
+
         // When
         List<RepairOrder> results = repairOrderDao.findByVehicleId("v-1");
 
         // Then
         assertEquals(2, results.size());
-        verify(mockPreparedStatement, times(3)).executeQuery();
+        assertEquals("o1", results.get(0).getId());
+        assertEquals(1, results.get(0).getParts().size());
+        assertEquals(2, results.get(1).getParts().size());
+        assertEquals(Money.parse("40.00"), results.get(1).getTotalCost());
+        verify(mockConnection).prepareStatement("SELECT * FROM parts WHERE repairOrderId IN (SELECT id FROM repair_orders WHERE vehicleId = ?)");
+        verify(mockPreparedStatement, times(2)).executeQuery();
+    }
+
+    @Test
+    void shouldFetchHistoryPageAndLoadPartsOnlyForItsOrders() throws SQLException {
+        // Given
+        ResultSet rsOrders = mock(ResultSet.class);
+        ResultSet rsParts = mock(ResultSet.class);
+
+        when(mockPreparedStatement.executeQuery()).thenReturn(rsOrders, rsParts);
+        when(rsOrders.next()).thenReturn(true, true, true, false);
+        when(rsOrders.getString("id")).thenReturn("o1", "o2", "o3");
+        when(rsOrders.getString("vehicleId")).thenReturn("v-1");
+        when(rsOrders.getString("status")).thenReturn("OPEN");
+        when(rsOrders.getString("createdAt")).thenReturn("2024-03-01T09:00", "2024-03-02T09:00", "2024-03-03T09:00");
+
+        when(rsParts.next()).thenReturn(true, false);
+        when(rsParts.getString("id")).thenReturn("p1");
+        when(rsParts.getString("repairOrderId")).thenReturn("o2");
+        when(rsParts.getString("partCode")).thenReturn("PC1");
+        when(rsParts.getString("name")).thenReturn("Filter");
+        when(rsParts.getLong("price")).thenReturn(1000L);
+        when(rsParts.getInt("quantity")).thenReturn(1);
+
+        // When
+        Page<RepairOrder> page = repairOrderDao.findByVehicleId("v-1", PageRequest.first(2, SortDirection.ASC));
+
+        // Then
+        assertEquals(List.of("o1", "o2"), page.items().stream().map(RepairOrder::getId).toList());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 9, 0), page.items().getFirst().getCreatedAt());
+        assertEquals(1, page.items().get(1).getParts().size());
+        assertEquals(new PageCursor(LocalDateTime.of(2024, 3, 2, 9, 0), "o2"), page.nextCursor());
+        verify(mockConnection).prepareStatement("SELECT * FROM repair_orders WHERE vehicleId = ? ORDER BY createdAt ASC, id ASC LIMIT ?");
+        verify(mockConnection).prepareStatement("SELECT * FROM parts WHERE repairOrderId IN (?, ?)");
+        verify(mockPreparedStatement).setString(1, "o1");
+        verify(mockPreparedStatement).setString(2, "o2");
+        verify(mockPreparedStatement, times(2)).executeQuery();
+    }
+
+    @Test
+    void shouldNotQueryPartsForEmptyHistoryPage() throws SQLException {
+        // Given
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(false);
+
+        // When
+        Page<RepairOrder> page = repairOrderDao.findByVehicleId("v-1", PageRequest.first(20, SortDirection.DESC));
+
+        // Then
+        assertTrue(page.items().isEmpty());
+        assertFalse(page.hasNext());
+        verify(mockPreparedStatement, times(1)).executeQuery();
     }
 
     @Test
@@ -146,14 +311,115 @@ public class RepairOrderDaoTest {
         // Then
         verify(mockConnection).setAutoCommit(false);
         verify(mockPreparedStatement).setString(1, "repair");
-        verify(mockPreparedStatement).setDouble(2, 300.0);
+        verify(mockPreparedStatement).setLong(2, 30000L);
         verify(mockPreparedStatement).setString(3, "COMPLETED");
         verify(mockPreparedStatement).setString(4, "123");
-        verify(mockPreparedStatement, times(3)).executeUpdate();
+        verify(mockPreparedStatement, times(2)).executeUpdate();
+        verify(mockPreparedStatement, times(1)).executeBatch();
+        verify(mockConnection).commit();
+        verify(mockConnection).setAutoCommit(true);
+    }
+
+    @Test
+    void shouldIssueSingleUpdateForStatusOnlyChange() throws SQLException {
+        // Given
+        RepairOrder order = new RepairOrder("123", "vehicle-123", "repair", 300.0);
+        order.addPart(new Part("p123", "123", "P1", "Part1", "Desc", 50.0, 2));
+        order.markPersisted();
+        order.updateStatus(RepairStatus.COMPLETED);
+
+        // When
+        repairOrderDao.update(order);
+
+        // Then
+        verify(mockConnection, times(1)).prepareStatement(anyString());
+        verify(mockPreparedStatement).setString(3, "COMPLETED");
+        verify(mockPreparedStatement, times(1)).executeUpdate();
+        verify(mockPreparedStatement, never()).executeBatch();
+        verify(mockConnection).commit();
+    }
+
+    @Test
+    void shouldWriteOnlyChangedPartsOnUpdate() throws SQLException {
+        // Given
+        Part changed = new Part("p1", "123", "P1", "Oil", "Desc", 50.0, 1);
+        RepairOrder order = new RepairOrder("123", "vehicle-123", "repair", 300.0);
+        order.addPart(changed);
+        order.addPart(new Part("p2", "123", "P2", "Filter", "Desc", 20.0, 1));
+        order.addPart(new Part("p3", "123", "P3", "Belt", "Desc", 80.0, 1));
+        order.markPersisted();
+
+        changed.setQuantity(4);
+        order.removePart("p2");
+        order.addPart(new Part("p4", "123", "P4", "Wiper", "Desc", 15.0, 2));
+
+        // When
+        repairOrderDao.update(order);
+
+        // Then
+        verify(mockConnection).prepareStatement("DELETE FROM parts WHERE id = ?");
+        verify(mockConnection).prepareStatement("UPDATE parts SET quantity = ? WHERE id = ?");
+        verify(mockConnection, never()).prepareStatement("DELETE FROM parts WHERE repairOrderId = ?");
+        verify(mockPreparedStatement).setString(1, "p2");
+        verify(mockPreparedStatement).setInt(1, 4);
+        verify(mockPreparedStatement).setString(1, "p4");
+        verify(mockPreparedStatement, never()).setString(1, "p3");
+        verify(mockPreparedStatement, times(3)).executeBatch();
+        assertTrue(order.pendingPartChanges().isEmpty());
+    }
+
+    @Test
+    void shouldAppendPartsToOpenOrderWithGuardedBatch() throws SQLException {
+        // Given
+        List<Part> parts = List.of(
+                new Part("p1", "o1", "P1", "Oil", "Desc", 50.0, 1),
+                new Part("p2", "o1", "P2", "Filter", "Desc", 20.0, 1)
+        );
+        when(mockPreparedStatement.executeBatch()).thenReturn(new int[]{1, 1});
+
+        // When
+        boolean added = repairOrderDao.addParts("o1", parts);
+
+        // Then
+        assertTrue(added);
+        verify(mockConnection, times(1)).prepareStatement(anyString());
+        verify(mockPreparedStatement, times(2)).setString(8, "o1");
+        verify(mockPreparedStatement, times(2)).addBatch();
+        verify(mockPreparedStatement, never()).executeQuery();
         verify(mockConnection).commit();
+    }
+
+    @Test
+    void shouldRollbackAppendWhenOrderIsClosedOrMissing() throws SQLException {
+        // Given
+        List<Part> parts = List.of(new Part("p1", "o1", "P1", "Oil", "Desc", 50.0, 1));
+        when(mockPreparedStatement.executeBatch()).thenReturn(new int[]{0});
+
+        // When
+        boolean added = repairOrderDao.addParts("o1", parts);
+
+        // Then
+        assertFalse(added);
+        verify(mockConnection).rollback();
+        verify(mockConnection, never()).commit();
         verify(mockConnection).setAutoCommit(true);
     }
 
+    @Test
+    void shouldFindStatusById() throws SQLException {
+        // Given
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getString("status")).thenReturn("WAITING_FOR_PARTS");
+
+        // When
+        Optional<RepairStatus> status = repairOrderDao.findStatusById("o1");
+
+        // Then
+        assertEquals(Optional.of(RepairStatus.WAITING_FOR_PARTS), status);
+        verify(mockPreparedStatement).setString(1, "o1");
+    }
+
     @Test
     void shouldLoadPartsSuccessfully() throws SQLException {
         // Given
@@ -163,14 +429,14 @@ public class RepairOrderDaoTest {
         when(mockOrderRs.getString("vehicleId")).thenReturn("vehicle-123");
         when(mockOrderRs.getString("description")).thenReturn("desc");
         when(mockOrderRs.getString("status")).thenReturn("OPEN");
-        when(mockOrderRs.getDouble("cost")).thenReturn(100.0);
+        when(mockOrderRs.getLong("cost")).thenReturn(10000L);
 
         when(mockResultSet.next()).thenReturn(true, true, false);
         when(mockResultSet.getString("id")).thenReturn("p1", "p2");
         when(mockResultSet.getString("repairOrderId")).thenReturn("o1");
         when(mockResultSet.getString("partCode")).thenReturn("PC1", "PC2");
         when(mockResultSet.getString("name")).thenReturn("Oil", "Filter");
-        when(mockResultSet.getDouble("price")).thenReturn(50.0, 20.0);
+        when(mockResultSet.getLong("price")).thenReturn(5000L, 2000L);
         when(mockResultSet.getInt("quantity")).thenReturn(1, 1);
 
         when(mockPreparedStatement.executeQuery()).thenReturn(mockOrderRs, mockResultSet);
@@ -183,7 +449,136 @@ public class RepairOrderDaoTest {
         assertEquals(2, result.get().getParts().size());
         assertEquals("Oil", result.get().getParts().get(0).getName());
         assertEquals("Filter", result.get().getParts().get(1).getName());
-        assertEquals(170.0, result.get().getTotalCost());
+        assertEquals(Money.parse("170.00"), result.get().getTotalCost());
+    }
+
+    @Test
+    void shouldStreamOrdersWithPartsFromSingleJoinedQuery() throws SQLException {
+        // Given
+        String[][] rows = {
+                {"o1", "p1", "Oil"},
+                {"o1", "p2", "Filter"},
+                {"o2", null, null}
+        };
+        int[] row = {-1};
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenAnswer(invocation -> ++row[0] < rows.length);
+        when(mockResultSet.getString("id")).thenAnswer(invocation -> rows[row[0]][0]);
+        when(mockResultSet.getString("part_id")).thenAnswer(invocation -> rows[row[0]][1]);
+        when(mockResultSet.getString("part_name")).thenAnswer(invocation -> rows[row[0]][2]);
+        when(mockResultSet.getString("part_code")).thenReturn("PC");
+        when(mockResultSet.getString("vehicleId")).thenReturn("vehicle-123");
+        when(mockResultSet.getString("status")).thenReturn("OPEN");
+        when(mockResultSet.getLong("part_price")).thenReturn(1000L);
+        when(mockResultSet.getInt("part_quantity")).thenReturn(2);
+
+        // When
+        List<RepairOrder> result;
+        try (Stream<RepairOrder> history = repairOrderDao.streamByVehicleId("vehicle-123", 50)) {
+            result = history.toList();
+        }
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(List.of("Oil", "Filter"), result.get(0).getParts().stream().map(Part::getName).toList());
+        assertTrue(result.get(1).getParts().isEmpty());
+        assertEquals(Money.parse("40.00"), result.get(0).getTotalCost());
+        verify(mockPreparedStatement).setFetchSize(50);
+        verify(mockPreparedStatement, times(1)).executeQuery();
+        verify(mockResultSet).close();
+        verify(mockPreparedStatement).close();
+    }
+
+    @Test
+    void shouldReadRowsLazilyWhileStreaming() throws SQLException {
+        // Given
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, true, true);
+        when(mockResultSet.getString("id")).thenReturn("o1", "o1", "o2", "o2", "o3", "o3");
+        when(mockResultSet.getString("vehicleId")).thenReturn("vehicle-123");
+        when(mockResultSet.getString("status")).thenReturn("OPEN");
+
+        // When
+        Optional<RepairOrder> first;
+        try (Stream<RepairOrder> history = repairOrderDao.streamByVehicleId("vehicle-123")) {
+            first = history.findFirst();
+        }
+
+        // Then
+        assertEquals("o1", first.orElseThrow().getId());
+        verify(mockResultSet, times(2)).next();
+        verify(mockResultSet).close();
+    }
+
+    @Test
+    void streamByVehicleIdShouldThrowRuntimeExceptionOnSqlException() throws SQLException {
+        // Given
+        when(mockPreparedStatement.executeQuery()).thenThrow(new SQLException("Query failed"));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> repairOrderDao.streamByVehicleId("vehicle-123"));
+        assertEquals("Error streaming repair orders for vehicle", exception.getMessage());
+        verify(mockPreparedStatement).close();
+    }
+
+    @Test
+    void shouldSumTotalCostForVehicleInSql() throws SQLException {
+        // Given
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getLong(1)).thenReturn(50500L);
+
+        // When
+        Money total = repairOrderDao.sumTotalCostByVehicleId("vehicle-123");
+
+        // Then
+        assertEquals(Money.parse("505.00"), total);
+        verify(mockPreparedStatement).setString(1, "vehicle-123");
+        verify(mockPreparedStatement, times(1)).executeQuery();
+        verify(mockResultSet, never()).getString(anyString());
+    }
+
+    @Test
+    void shouldSumTotalCostByStatusName() throws SQLException {
+        // Given
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getLong(1)).thenReturn(0L);
+
+        // When
+        repairOrderDao.sumTotalCostByStatus(RepairStatus.COMPLETED);
+
+        // Then
+        verify(mockPreparedStatement).setString(1, "COMPLETED");
+    }
+
+    @Test
+    void shouldSumDenormalizedTotalsForCreationPeriod() throws SQLException {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getLong(1)).thenReturn(123456L);
+
+        // When
+        Money total = repairOrderDao.sumTotalCostCreatedBetween(from, to);
+
+        // Then
+        assertEquals(Money.parse("1234.56"), total);
+        verify(mockConnection).prepareStatement(contains("SUM(ro.totalCost)"));
+        verify(mockPreparedStatement).setString(1, "2024-01-01T00:00");
+        verify(mockPreparedStatement).setString(2, "2024-02-01T00:00");
+    }
+
+    @Test
+    void sumTotalCostByOwnerIdShouldThrowRuntimeExceptionOnSqlException() throws SQLException {
+        // Given
+        when(mockPreparedStatement.executeQuery()).thenThrow(new SQLException("Query failed"));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> repairOrderDao.sumTotalCostByOwnerId("owner-1"));
+        assertEquals("Error calculating repair costs for owner", exception.getMessage());
     }
 
     @Test
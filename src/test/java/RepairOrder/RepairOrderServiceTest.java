@@ -4,16 +4,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import pl.sobczak.grzegorz.dao.Page;
+import pl.sobczak.grzegorz.dao.PageRequest;
 import pl.sobczak.grzegorz.dao.RepairOrderDao;
+import pl.sobczak.grzegorz.dao.SortDirection;
 import pl.sobczak.grzegorz.dao.VehicleDao;
+import pl.sobczak.grzegorz.model.Money;
 import pl.sobczak.grzegorz.model.Part;
 import pl.sobczak.grzegorz.model.RepairOrder;
 import pl.sobczak.grzegorz.model.RepairStatus;
 import pl.sobczak.grzegorz.model.Vehicle;
 import pl.sobczak.grzegorz.service.RepairOrderService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -66,35 +72,74 @@ public class RepairOrderServiceTest {
         verify(repairOrderDao).update(order);
     }
 
+    @Test
+    void shouldMoveRepairThroughWorkshopStatuses() {
+        // Given
+        String orderId = "123";
+        RepairOrder order = new RepairOrder(orderId, "vehicle-123", "repair", 123);
+        when(repairOrderDao.findById(orderId)).thenReturn(Optional.of(order));
+
+        // When
+        repairOrderService.startRepair(orderId);
+        RepairStatus started = order.getStatus();
+        repairOrderService.waitForParts(orderId);
+
+        // Then
+        assertEquals(RepairStatus.IN_PROGRESS, started);
+        assertEquals(RepairStatus.WAITING_FOR_PARTS, order.getStatus());
+        verify(repairOrderDao, times(2)).update(order);
+    }
+
     @Test
     void shouldCalculateTotalRepairCostsForVehicle() {
         // Given
         String vehicleId = "vehicle-123";
-        RepairOrder o1 = new RepairOrder(vehicleId, "repair1", 100.0);
-        RepairOrder o2 = new RepairOrder(vehicleId, "repair2", 200.5);
-
-        when(repairOrderDao.findByVehicleId(vehicleId)).thenReturn(List.of(o1, o2));
+        when(repairOrderDao.sumTotalCostByVehicleId(vehicleId)).thenReturn(Money.parse("300.50"));
 
         // When
-        double total = repairOrderService.getTotalRepairCostsForVehicle(vehicleId);
+        Money total = repairOrderService.getTotalRepairCostsForVehicle(vehicleId);
 
         // Then
-        assertEquals(300.5, total);
-        verify(repairOrderDao).findByVehicleId(vehicleId);
+        assertEquals(Money.parse("300.50"), total);
+        verify(repairOrderDao).sumTotalCostByVehicleId(vehicleId);
+        verify(repairOrderDao, never()).findByVehicleId(any());
+    }
+
+    @Test
+    void shouldCalculateTotalRepairCostsForOwnerAndStatus() {
+        // Given
+        when(repairOrderDao.sumTotalCostByOwnerId("owner-1")).thenReturn(Money.parse("1250.00"));
+        when(repairOrderDao.sumTotalCostByStatus(RepairStatus.COMPLETED)).thenReturn(Money.parse("980.00"));
+
+        // When & Then
+        assertEquals(Money.parse("1250.00"), repairOrderService.getTotalRepairCostsForOwner("owner-1"));
+        assertEquals(Money.parse("980.00"), repairOrderService.getTotalRepairCostsByStatus(RepairStatus.COMPLETED));
+    }
+
+    @Test
+    void shouldCalculateTotalRepairCostsForPeriod() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        when(repairOrderDao.sumTotalCostCreatedBetween(from, to)).thenReturn(Money.parse("4200.00"));
+
+        // When & Then
+        assertEquals(Money.parse("4200.00"), repairOrderService.getTotalRepairCostsBetween(from, to));
+        assertThrows(IllegalArgumentException.class, () -> repairOrderService.getTotalRepairCostsBetween(to, from));
     }
 
     @Test
     void shouldReturnZeroCostWhenNoRepairsFound() {
         // Given
         String vehicleId = "123";
-        when(repairOrderDao.findByVehicleId(vehicleId)).thenReturn(List.of());
+        when(repairOrderDao.sumTotalCostByVehicleId(vehicleId)).thenReturn(Money.ZERO);
 
         // When
-        double total = repairOrderService.getTotalRepairCostsForVehicle(vehicleId);
+        Money total = repairOrderService.getTotalRepairCostsForVehicle(vehicleId);
 
         // Then
-        assertEquals(0.0, total);
-        verify(repairOrderDao).findByVehicleId(vehicleId);
+        assertEquals(Money.ZERO, total);
+        verify(repairOrderDao).sumTotalCostByVehicleId(vehicleId);
     }
 
     @Test
@@ -117,6 +162,40 @@ public class RepairOrderServiceTest {
         verify(repairOrderDao).findByVehicleId(vehicleId);
     }
 
+    @Test
+    void shouldGetVehicleHistoryPage() {
+        // Given
+        String vehicleId = "vehicle-123";
+        PageRequest pageRequest = PageRequest.first(1, SortDirection.DESC);
+        Page<RepairOrder> page = new Page<>(List.of(new RepairOrder(vehicleId, "repair2", 200)), null);
+        when(repairOrderDao.findByVehicleId(vehicleId, pageRequest)).thenReturn(page);
+
+        // When
+        Page<RepairOrder> result = repairOrderService.getVehicleHistory(vehicleId, pageRequest);
+
+        // Then
+        assertSame(page, result);
+        verify(repairOrderDao, never()).findByVehicleId(vehicleId);
+    }
+
+    @Test
+    void shouldStreamVehicleHistory() {
+        // Given
+        String vehicleId = "vehicle-123";
+        RepairOrder order = new RepairOrder(vehicleId, "repair1", 100);
+        when(repairOrderDao.streamByVehicleId(vehicleId)).thenReturn(Stream.of(order));
+
+        // When
+        List<RepairOrder> result;
+        try (Stream<RepairOrder> history = repairOrderService.streamVehicleHistory(vehicleId)) {
+            result = history.toList();
+        }
+
+        // Then
+        assertEquals(List.of(order), result);
+        verify(repairOrderDao, never()).findByVehicleId(any());
+    }
+
     @Test
     void shouldAddPartToOrderSuccessfully() {
         // Given
@@ -124,15 +203,47 @@ public class RepairOrderServiceTest {
         RepairOrder order = new RepairOrder(orderId, "vehicle-123", "repair", 100.0);
         Part part = new Part("part-1", orderId, "P1", "Oil", "Desc", 50.0, 1);
 
-        when(repairOrderDao.findById(orderId)).thenReturn(Optional.of(order));
+        when(repairOrderDao.addParts(orderId, List.of(part))).thenReturn(true);
 
         // When
         repairOrderService.addPartToOrder(orderId, part);
 
         // Then
-        assertEquals(1, order.getParts().size());
-        assertEquals("Oil", order.getParts().getFirst().getName());
-        verify(repairOrderDao).update(order);
+        verify(repairOrderDao).addParts(orderId, List.of(part));
+        verify(repairOrderDao, never()).findById(any());
+        verify(repairOrderDao, never()).update(any());
+    }
+
+    @Test
+    void shouldAddPartsToOrderInBulk() {
+        // Given
+        String orderId = "order-123";
+        List<Part> parts = List.of(
+                new Part("part-1", orderId, "P1", "Oil", "Desc", 50.0, 1),
+                new Part("part-2", orderId, "P2", "Filter", "Desc", 20.0, 2)
+        );
+        when(repairOrderDao.addParts(orderId, parts)).thenReturn(true);
+
+        // When
+        repairOrderService.addPartsToOrder(orderId, parts);
+
+        // Then
+        verify(repairOrderDao).addParts(orderId, parts);
+        verify(repairOrderDao, never()).findStatusById(any());
+    }
+
+    @Test
+    void shouldRejectPartBelongingToDifferentOrder() {
+        // Given
+        Part part = new Part("part-1", "other-order", "P1", "Oil", "Desc", 50.0, 1);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                repairOrderService.addPartToOrder("order-123", part)
+        );
+
+        assertEquals("Part belongs to a different repair order", exception.getMessage());
+        verify(repairOrderDao, never()).addParts(any(), any());
     }
 
     @Test
@@ -183,11 +294,9 @@ public class RepairOrderServiceTest {
     void shouldThrowExceptionWhenAddingPartToClosedOrder() {
         // Given
         String orderId = "order-123";
-        RepairOrder order = new RepairOrder(orderId, "vehicle-123", "repair", 100.0);
-        order.updateStatus(RepairStatus.COMPLETED);
-
         Part part = new Part("part-1", orderId, "P1", "Oil", "Desc", 50.0, 1);
-        when(repairOrderDao.findById(orderId)).thenReturn(Optional.of(order));
+        when(repairOrderDao.addParts(orderId, List.of(part))).thenReturn(false);
+        when(repairOrderDao.findStatusById(orderId)).thenReturn(Optional.of(RepairStatus.COMPLETED));
 
         // When & Then
         IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
@@ -202,11 +311,9 @@ public class RepairOrderServiceTest {
     void shouldThrowExceptionWhenAddingPartToCancelledOrder() {
         // Given
         String orderId = "order-123";
-        RepairOrder order = new RepairOrder(orderId, "vehicle-123", "repair", 100.0);
-        order.updateStatus(RepairStatus.CANCELLED);
-
         Part part = new Part("part-1", orderId, "P1", "Oil", "Desc", 50.0, 1);
-        when(repairOrderDao.findById(orderId)).thenReturn(Optional.of(order));
+        when(repairOrderDao.addParts(orderId, List.of(part))).thenReturn(false);
+        when(repairOrderDao.findStatusById(orderId)).thenReturn(Optional.of(RepairStatus.CANCELLED));
 
         // When & Then
         IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
@@ -222,7 +329,8 @@ public class RepairOrderServiceTest {
         // Given
         String orderId = "ghost-id";
         Part part = new Part("p1", orderId, "P1", "Oil", "Desc", 10.0, 1);
-        when(repairOrderDao.findById(orderId)).thenReturn(Optional.empty());
+        when(repairOrderDao.addParts(orderId, List.of(part))).thenReturn(false);
+        when(repairOrderDao.findStatusById(orderId)).thenReturn(Optional.empty());
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
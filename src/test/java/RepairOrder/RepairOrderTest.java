@@ -2,7 +2,9 @@ package RepairOrder;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import pl.sobczak.grzegorz.model.Money;
 import pl.sobczak.grzegorz.model.Part;
+import pl.sobczak.grzegorz.model.PartChanges;
 import pl.sobczak.grzegorz.model.RepairOrder;
 import pl.sobczak.grzegorz.model.RepairStatus;
 
@@ -23,7 +25,7 @@ public class RepairOrderTest {
         assertEquals("123", repairOrder.getId());
         assertEquals("vehicle-123", repairOrder.getVehicleId());
         assertEquals("repair", repairOrder.getDescription());
-        assertEquals(123, repairOrder.getServiceCost());
+        assertEquals(Money.ofGrosze(12300), repairOrder.getServiceCost());
         assertEquals(RepairStatus.OPEN, repairOrder.getStatus());
         assertNotNull(repairOrder.getCreatedAt());
     }
@@ -52,7 +54,7 @@ public class RepairOrderTest {
         repairOrder.updateServiceCost(321);
 
         // Then
-        assertEquals(321, repairOrder.getServiceCost());
+        assertEquals(Money.ofGrosze(32100), repairOrder.getServiceCost());
     }
 
     @Test
@@ -69,6 +71,109 @@ public class RepairOrderTest {
         assertEquals("Oil", parts.getFirst().getName());
     }
 
+    @Test
+    void shouldRemovePartById() {
+        // Given
+        repairOrder.addPart(new Part("p1", "123", "P1", "Oil", "Desc", 50.0, 1));
+        repairOrder.addPart(new Part("p2", "123", "P2", "Filter", "Desc", 20.0, 1));
+
+        // When
+        boolean removed = repairOrder.removePart("p1");
+
+        // Then
+        assertTrue(removed);
+        assertFalse(repairOrder.removePart("missing"));
+        assertEquals(1, repairOrder.getParts().size());
+        assertEquals("p2", repairOrder.getParts().getFirst().getId());
+    }
+
+    @Test
+    void shouldKeepRunningTotalInSyncWithParts() {
+        Part oil = new Part("p1", "123", "OIL", "Oil", "", 45.0, 2);
+        Part filter = new Part("p2", "123", "FIL", "Filter", "", 30.5, 1);
+
+        repairOrder.addPart(oil);
+        repairOrder.addPart(filter);
+        assertEquals(Money.parse("120.50"), repairOrder.getPartsTotal());
+
+        oil.setQuantity(5);
+        assertEquals(Money.parse("255.50"), repairOrder.getPartsTotal());
+
+        repairOrder.removePart("p2");
+        filter.setQuantity(10);
+        assertEquals(Money.parse("225.00"), repairOrder.getPartsTotal());
+        assertEquals(Money.parse("348.00"), repairOrder.getTotalCost());
+    }
+
+    @Test
+    void shouldLeaveTotalUnchangedWhenQuantityUpdateOverflows() {
+        Part part = new Part("p1", "123", "BIG", "Big", "", Money.ofGrosze(Long.MAX_VALUE / 2), 1);
+        repairOrder.addPart(part);
+
+        assertThrows(ArithmeticException.class, () -> part.setQuantity(3));
+        assertEquals(1, part.getQuantity());
+        assertEquals(Money.ofGrosze(Long.MAX_VALUE / 2), repairOrder.getPartsTotal());
+    }
+
+    @Test
+    void shouldNotAttachPartWhenTotalOverflows() {
+        Part first = new Part("p1", "123", "BIG", "Big", "", Money.ofGrosze(Long.MAX_VALUE / 2), 1);
+        Part second = new Part("p2", "123", "BIG", "Big", "", Money.ofGrosze(Long.MAX_VALUE / 2), 2);
+        repairOrder.addPart(first);
+        repairOrder.markPersisted();
+
+        assertThrows(ArithmeticException.class, () -> repairOrder.addPart(second));
+        assertEquals(List.of(first), repairOrder.getParts());
+        assertEquals(Money.ofGrosze(Long.MAX_VALUE / 2), repairOrder.getPartsTotal());
+        assertTrue(repairOrder.pendingPartChanges().isEmpty());
+        second.setQuantity(1);
+        assertEquals(Money.ofGrosze(Long.MAX_VALUE / 2), repairOrder.getPartsTotal());
+    }
+
+    @Test
+    void shouldTrackPartChangesSinceLastPersist() {
+        // Given
+        Part kept = new Part("p1", "123", "P1", "Oil", "Desc", 50.0, 1);
+        Part changed = new Part("p2", "123", "P2", "Filter", "Desc", 20.0, 1);
+        Part removed = new Part("p3", "123", "P3", "Belt", "Desc", 80.0, 1);
+        repairOrder.addPart(kept);
+        repairOrder.addPart(changed);
+        repairOrder.addPart(removed);
+        repairOrder.markPersisted();
+
+        Part added = new Part("p4", "123", "P4", "Wiper", "Desc", 15.0, 2);
+
+        // When
+        changed.setQuantity(3);
+        repairOrder.removePart("p3");
+        repairOrder.addPart(added);
+        PartChanges changes = repairOrder.pendingPartChanges();
+
+        // Then
+        assertEquals(List.of(added), changes.added());
+        assertEquals(List.of(changed), changes.changed());
+        assertEquals(List.of("p3"), changes.removedIds());
+    }
+
+    @Test
+    void shouldReportNoPartChangesAfterStatusUpdate() {
+        // Given
+        repairOrder.addPart(new Part("p1", "123", "P1", "Oil", "Desc", 50.0, 1));
+        repairOrder.markPersisted();
+
+        // When
+        repairOrder.updateStatus(RepairStatus.COMPLETED);
+
+        // Then
+        assertTrue(repairOrder.pendingPartChanges().isEmpty());
+    }
+
+    @Test
+    void shouldRequirePersistedStateToComputePartChanges() {
+        assertFalse(repairOrder.isTracked());
+        assertThrows(IllegalStateException.class, () -> repairOrder.pendingPartChanges());
+    }
+
     @Test
     void shouldMaintainCreationDate() {
         assertNotNull(repairOrder.getCreatedAt());
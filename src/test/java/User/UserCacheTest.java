@@ -0,0 +1,105 @@
+package User;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import pl.sobczak.grzegorz.dao.UserCache;
+import pl.sobczak.grzegorz.dao.UserDao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class UserCacheTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockPreparedStatement;
+
+    @Mock
+    private ResultSet mockResultSet;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockPreparedStatement);
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getString("firstName")).thenReturn("Jan");
+        when(mockResultSet.getString("lastName")).thenReturn("Kowalski");
+        when(mockResultSet.getString("role")).thenReturn("USER");
+        when(mockResultSet.getInt("isActive")).thenReturn(1);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedUserWhenFull() throws SQLException {
+        // Given
+        UserCache cache = new UserCache(2, Duration.ofMinutes(1));
+        UserDao userDao = new UserDao(mockConnection, cache);
+        when(mockResultSet.getString("id")).thenReturn("u1", "u2", "u3");
+        when(mockResultSet.getString("email")).thenReturn("a@test.pl", "b@test.pl", "c@test.pl");
+
+        // When
+        userDao.getUserById("u1");
+        userDao.getUserById("u2");
+        userDao.getUserById("u1");
+        userDao.getUserById("u3");
+
+        // Then
+        assertEquals(2, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+        assertTrue(userDao.getUserById("u1").isPresent());
+        assertEquals(2, cache.stats().hits());
+        verify(mockPreparedStatement, times(3)).executeQuery();
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() throws SQLException {
+        // Given
+        UserCache cache = new UserCache(10, Duration.ofNanos(1));
+        UserDao userDao = new UserDao(mockConnection, cache);
+        when(mockResultSet.getString("id")).thenReturn("u1");
+        when(mockResultSet.getString("email")).thenReturn("a@test.pl");
+
+        // When
+        userDao.getUserByEmail("a@test.pl");
+        userDao.getUserByEmail("a@test.pl");
+
+        // Then
+        assertEquals(1, cache.stats().expirations());
+        assertEquals(0.0, cache.stats().hitRatio());
+        verify(mockPreparedStatement, times(2)).executeQuery();
+    }
+
+    @Test
+    void shouldReportHitRatio() throws SQLException {
+        // Given
+        UserCache cache = new UserCache(10, Duration.ofMinutes(1));
+        UserDao userDao = new UserDao(mockConnection, cache);
+        when(mockResultSet.getString("id")).thenReturn("u1");
+        when(mockResultSet.getString("email")).thenReturn("a@test.pl");
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            userDao.getUserByEmail("a@test.pl");
+        }
+
+        // Then
+        assertEquals(0.75, cache.stats().hitRatio());
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new UserCache(0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new UserCache(10, Duration.ZERO));
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import pl.sobczak.grzegorz.dao.UserCache;
 import pl.sobczak.grzegorz.dao.UserDao;
 import pl.sobczak.grzegorz.model.Role;
 import pl.sobczak.grzegorz.model.User;
@@ -12,9 +13,14 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 public class UserDaoTest {
@@ -158,6 +164,31 @@ public class UserDaoTest {
         verify(mockPreparedStatement, times(1)).executeQuery();
     }
 
+    @Test
+    void shouldBindAndReadUuidIdentifiersAsSixteenByteBlobs() throws SQLException {
+        // Given
+        String userId = "5f0c6a8e-3b1d-4c2a-9e7f-0a1b2c3d4e5f";
+        byte[] storedId = HexFormat.of().parseHex(userId.replace("-", ""));
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true);
+
+        when(mockResultSet.getObject("id")).thenReturn(storedId);
+        when(mockResultSet.getString("firstName")).thenReturn("Jan");
+        when(mockResultSet.getString("lastName")).thenReturn("Kowalski");
+        when(mockResultSet.getString("email")).thenReturn("jan@test.pl");
+        when(mockResultSet.getString("role")).thenReturn("USER");
+        when(mockResultSet.getInt("isActive")).thenReturn(1);
+
+        // When
+        var result = userDao.getUserById(userId);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(userId, result.get().getUserId());
+        verify(mockPreparedStatement).setBytes(1, storedId);
+        verify(mockPreparedStatement, never()).setString(eq(1), anyString());
+    }
+
     @Test
     void shouldReturnEmptyOptionalWhenUserNotFoundByIdOrEmail() throws SQLException {
         // Given
@@ -268,4 +299,120 @@ public class UserDaoTest {
         RuntimeException exception = assertThrows(RuntimeException.class, () -> userDao.getUserById("123"));
         assertEquals("Error fetching user", exception.getMessage());
     }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCacheByEmailAndId() throws SQLException {
+        // Given
+        UserCache cache = new UserCache(10, Duration.ofMinutes(1));
+        UserDao cachingDao = new UserDao(mockConnection, cache);
+        stubUserRow("123", "jan@test.pl");
+
+        // When
+        cachingDao.getUserByEmail("jan@test.pl");
+        var byEmail = cachingDao.getUserByEmail("jan@test.pl");
+        var byId = cachingDao.getUserById("123");
+
+        // Then
+        assertEquals("123", byEmail.orElseThrow().getUserId());
+        assertEquals("jan@test.pl", byId.orElseThrow().getEmail());
+        verify(mockPreparedStatement, times(1)).executeQuery();
+        assertEquals(2, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void shouldReturnIndependentCopiesFromCache() throws SQLException {
+        // Given
+        UserDao cachingDao = new UserDao(mockConnection, new UserCache(10, Duration.ofMinutes(1)));
+        stubUserRow("123", "jan@test.pl");
+        cachingDao.getUserByEmail("jan@test.pl").orElseThrow().updateRole(Role.ADMIN);
+
+        // When
+        var result = cachingDao.getUserByEmail("jan@test.pl");
+
+        // Then
+        assertEquals(Role.USER, result.orElseThrow().getRole());
+    }
+
+    @Test
+    void shouldInvalidateCachedUserOnUpdateAndDelete() throws SQLException {
+        // Given
+        UserCache cache = new UserCache(10, Duration.ofMinutes(1));
+        UserDao cachingDao = new UserDao(mockConnection, cache);
+        stubUserRow("123", "jan@test.pl");
+        User user = cachingDao.getUserByEmail("jan@test.pl").orElseThrow();
+
+        // When
+        cachingDao.updateUser(user);
+        cachingDao.getUserByEmail("jan@test.pl");
+        cachingDao.deleteUser("123");
+        cachingDao.getUserById("123");
+
+        // Then
+        verify(mockPreparedStatement, times(3)).executeQuery();
+        assertEquals(0, cache.stats().hits());
+        assertEquals(2, cache.stats().invalidations());
+    }
+
+    @Test
+    void shouldInvalidateCacheEvenWhenUpdateFails() throws SQLException {
+        // Given
+        UserCache cache = new UserCache(10, Duration.ofMinutes(1));
+        UserDao cachingDao = new UserDao(mockConnection, cache);
+        stubUserRow("123", "jan@test.pl");
+        User user = cachingDao.getUserByEmail("jan@test.pl").orElseThrow();
+        when(mockPreparedStatement.executeUpdate()).thenThrow(new SQLException("locked"));
+
+        // When
+        assertThrows(RuntimeException.class, () -> cachingDao.updateUser(user));
+
+        // Then
+        assertEquals(0, cache.stats().size());
+    }
+
+    private void stubUserRow(String id, String email) throws SQLException {
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getString("id")).thenReturn(id);
+        when(mockResultSet.getString("firstName")).thenReturn("Jan");
+        when(mockResultSet.getString("lastName")).thenReturn("Kowalski");
+        when(mockResultSet.getString("email")).thenReturn(email);
+        when(mockResultSet.getString("role")).thenReturn("USER");
+        when(mockResultSet.getInt("isActive")).thenReturn(1);
+    }
+
+    @Test
+    void shouldSaveUsersIfAbsentAndReportInsertedIds() throws SQLException {
+        // Given
+        User first = new User("u1", "Jan", "Kowalski", "jan@test.pl", "password123");
+        User second = new User("u2", "Anna", "Nowak", "anna@test.pl", "password123");
+        when(mockPreparedStatement.executeBatch()).thenReturn(new int[]{0, 1});
+
+        // When
+        Set<String> inserted = userDao.saveAllIfAbsent(List.of(first, second));
+
+        // Then
+        assertEquals(Set.of("u2"), inserted);
+        verify(mockConnection).prepareStatement(startsWith("INSERT OR IGNORE INTO users"));
+        verify(mockPreparedStatement, times(2)).setString(5, "hidden_password");
+        verify(mockConnection).commit();
+        verify(mockConnection).setAutoCommit(true);
+    }
+
+    @Test
+    void shouldFindExistingUserIdsWithSingleSetQuery() throws SQLException {
+        // Given
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, false);
+        when(mockResultSet.getString("id")).thenReturn("u1");
+
+        // When
+        var existing = userDao.findExistingIds(List.of("u1", "u2", "u1"));
+
+        // Then
+        assertEquals(Set.of("u1"), existing);
+        verify(mockConnection).prepareStatement("SELECT id FROM users WHERE id IN (?, ?)");
+        verify(mockPreparedStatement).setString(1, "u1");
+        verify(mockPreparedStatement).setString(2, "u2");
+    }
 }
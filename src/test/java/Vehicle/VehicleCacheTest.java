@@ -0,0 +1,123 @@
+package Vehicle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import pl.sobczak.grzegorz.dao.VehicleCache;
+import pl.sobczak.grzegorz.dao.VehicleDao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class VehicleCacheTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockPreparedStatement;
+
+    @Mock
+    private ResultSet mockResultSet;
+
+    private String boundId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockPreparedStatement);
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        doAnswer(invocation -> boundId = invocation.getArgument(1))
+                .when(mockPreparedStatement).setString(eq(1), anyString());
+
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getString("id")).thenAnswer(invocation -> boundId);
+        when(mockResultSet.getString("vin")).thenAnswer(invocation -> vinOf(boundId));
+        when(mockResultSet.getString("ownerId")).thenReturn("own123");
+        when(mockResultSet.getString("brand")).thenReturn("Toyota");
+        when(mockResultSet.getString("model")).thenReturn("Corolla");
+        when(mockResultSet.getString("color")).thenReturn("Red");
+    }
+
+    private String vinOf(String id) {
+        return String.format("VIN%014d", Integer.parseInt(id.substring(1)));
+    }
+
+    @Test
+    void shouldShareEntryBetweenIdAndVinLookups() throws SQLException {
+        // Given
+        VehicleCache cache = new VehicleCache(100);
+        VehicleDao vehicleDao = new VehicleDao(mockConnection, cache);
+
+        // When
+        vehicleDao.findById("v7");
+        var byVin = vehicleDao.findByVin(vinOf("v7"));
+
+        // Then
+        assertEquals("v7", byVin.orElseThrow().getId());
+        verify(mockPreparedStatement, times(1)).executeQuery();
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void shouldKeepFrequentlyUsedVehiclesDuringScan() throws SQLException {
+        // Given
+        VehicleCache cache = new VehicleCache(100);
+        VehicleDao vehicleDao = new VehicleDao(mockConnection, cache);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                vehicleDao.findById("v" + i);
+            }
+        }
+
+        // When
+        for (int i = 1000; i < 1500; i++) {
+            vehicleDao.findById("v" + i);
+        }
+        long hitsBefore = cache.stats().hits();
+        for (int i = 0; i < 50; i++) {
+            vehicleDao.findById("v" + i);
+        }
+
+        // Then
+        assertEquals(50, cache.stats().hits() - hitsBefore);
+        assertTrue(cache.stats().rejections() > 0);
+        assertTrue(cache.stats().size() <= 100);
+    }
+
+    @Test
+    void shouldAdmitNewVehicleOnceItBecomesPopular() throws SQLException {
+        // Given
+        VehicleCache cache = new VehicleCache(100);
+        VehicleDao vehicleDao = new VehicleDao(mockConnection, cache);
+        for (int i = 0; i < 200; i++) {
+            vehicleDao.findById("v" + i);
+        }
+
+        // When
+        for (int round = 0; round < 5; round++) {
+            vehicleDao.findById("v500");
+            vehicleDao.findById("v" + (600 + round));
+        }
+        long hitsBefore = cache.stats().hits();
+        vehicleDao.findById("v600");
+        vehicleDao.findById("v500");
+
+        // Then
+        assertEquals(1, cache.stats().hits() - hitsBefore);
+        assertTrue(cache.stats().evictions() > 0);
+    }
+
+    @Test
+    void shouldRejectInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new VehicleCache(0));
+    }
+}
@@ -4,6 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import pl.sobczak.grzegorz.dao.Page;
+import pl.sobczak.grzegorz.dao.PageCursor;
+import pl.sobczak.grzegorz.dao.PageRequest;
+import pl.sobczak.grzegorz.dao.SortDirection;
+import pl.sobczak.grzegorz.dao.VehicleCache;
 import pl.sobczak.grzegorz.dao.VehicleDao;
 import pl.sobczak.grzegorz.model.Vehicle;
 
@@ -11,10 +16,14 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 public class VehicleDaoTest {
@@ -54,6 +63,7 @@ public class VehicleDaoTest {
         verify(mockPreparedStatement).setString(4, "Corolla");
         verify(mockPreparedStatement).setString(5, validVin);
         verify(mockPreparedStatement).setString(6, "Red");
+        verify(mockPreparedStatement).setString(7, vehicle.getCreatedAt().toString());
         verify(mockPreparedStatement, times(1)).executeUpdate();
     }
 
@@ -150,6 +160,66 @@ public class VehicleDaoTest {
         verify(mockPreparedStatement).setString(1, "own123");
     }
 
+    @Test
+    void shouldFetchFirstPageOfOwnerVehiclesWithCursorToNextPage() throws SQLException {
+        // Given
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, true, true, false);
+
+        when(mockResultSet.getString("id")).thenReturn("v1", "v2", "v3");
+        when(mockResultSet.getString("ownerId")).thenReturn("own123");
+        when(mockResultSet.getString("brand")).thenReturn("Toyota", "Honda", "Mazda");
+        when(mockResultSet.getString("model")).thenReturn("Corolla");
+        when(mockResultSet.getString("vin")).thenReturn(validVin);
+        when(mockResultSet.getString("color")).thenReturn("Red");
+        when(mockResultSet.getString("createdAt")).thenReturn("2024-01-01T10:00", "2024-01-02T10:00", "2024-01-03T10:00");
+
+        // When
+        Page<Vehicle> page = vehicleDao.findByOwnerId("own123", PageRequest.first(2, SortDirection.ASC));
+
+        // Then
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasNext());
+        assertEquals(new PageCursor(LocalDateTime.of(2024, 1, 2, 10, 0), "v2"), page.nextCursor());
+        verify(mockConnection).prepareStatement("SELECT * FROM vehicles WHERE ownerId = ? ORDER BY createdAt ASC, id ASC LIMIT ?");
+        verify(mockPreparedStatement).setString(1, "own123");
+        verify(mockPreparedStatement).setInt(2, 3);
+    }
+
+    @Test
+    void shouldSeekPastCursorWhenPagingBackwards() throws SQLException {
+        // Given
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 1, 2, 10, 0), "v2");
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, false);
+
+        when(mockResultSet.getString("id")).thenReturn("v1");
+        when(mockResultSet.getString("ownerId")).thenReturn("own123");
+        when(mockResultSet.getString("brand")).thenReturn("Toyota");
+        when(mockResultSet.getString("model")).thenReturn("Corolla");
+        when(mockResultSet.getString("vin")).thenReturn(validVin);
+        when(mockResultSet.getString("color")).thenReturn("Red");
+        when(mockResultSet.getString("createdAt")).thenReturn("2024-01-01T10:00");
+
+        // When
+        Page<Vehicle> page = vehicleDao.findByOwnerId("own123", new PageRequest(cursor, 2, SortDirection.DESC));
+
+        // Then
+        assertEquals(1, page.items().size());
+        assertFalse(page.hasNext());
+        verify(mockConnection).prepareStatement("SELECT * FROM vehicles WHERE ownerId = ? AND (createdAt, id) < (?, ?) ORDER BY createdAt DESC, id DESC LIMIT ?");
+        verify(mockPreparedStatement).setString(2, "2024-01-02T10:00");
+        verify(mockPreparedStatement).setString(3, "v2");
+        verify(mockPreparedStatement).setInt(4, 3);
+    }
+
+    @Test
+    void shouldRejectInvalidPageRequests() {
+        assertThrows(IllegalArgumentException.class, () -> PageRequest.first(0, SortDirection.ASC));
+        assertThrows(IllegalArgumentException.class, () -> PageRequest.first(PageRequest.MAX_SIZE + 1, SortDirection.ASC));
+        assertThrows(IllegalArgumentException.class, () -> PageRequest.first(10, null));
+    }
+
     @Test
     void shouldUpdateVehicleColor() throws SQLException {
         // Given
@@ -235,4 +305,85 @@ public class VehicleDaoTest {
         RuntimeException exception = assertThrows(RuntimeException.class, () -> vehicleDao.findById("123"));
         assertEquals("Error finding vehicle by ID", exception.getMessage());
     }
+
+    @Test
+    void shouldReloadVehicleFromDatabaseAfterUpdateAndDelete() throws SQLException {
+        // Given
+        VehicleCache cache = new VehicleCache(100);
+        VehicleDao cachingDao = new VehicleDao(mockConnection, cache);
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getString("id")).thenReturn("123");
+        when(mockResultSet.getString("ownerId")).thenReturn("own123");
+        when(mockResultSet.getString("brand")).thenReturn("Toyota");
+        when(mockResultSet.getString("model")).thenReturn("Corolla");
+        when(mockResultSet.getString("vin")).thenReturn(validVin);
+        when(mockResultSet.getString("color")).thenReturn("Red", "Blue");
+
+        Vehicle vehicle = cachingDao.findByVin(validVin).orElseThrow();
+        vehicle.changeColor("Blue");
+
+        // When
+        assertEquals("Red", cachingDao.findById("123").orElseThrow().getColor());
+        cachingDao.update(vehicle);
+        Vehicle reloaded = cachingDao.findByVin(validVin).orElseThrow();
+        cachingDao.delete("123");
+
+        // Then
+        assertEquals("Blue", reloaded.getColor());
+        verify(mockPreparedStatement, times(2)).executeQuery();
+        assertEquals(0, cache.stats().size());
+        assertEquals(2, cache.stats().invalidations());
+    }
+
+    @Test
+    void shouldCheckVinsInChunkedSetQueries() throws SQLException {
+        // Given
+        List<String> vins = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            vins.add(String.format("VIN%014d", i));
+        }
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, false, false);
+        when(mockResultSet.getString("vin")).thenReturn(vins.get(3));
+
+        // When
+        Set<String> existing = vehicleDao.findExistingVins(vins);
+
+        // Then
+        assertEquals(Set.of(vins.get(3)), existing);
+        verify(mockPreparedStatement, times(2)).executeQuery();
+        verify(mockConnection).prepareStatement("SELECT vin FROM vehicles WHERE vin IN (?)");
+    }
+
+    @Test
+    void shouldInsertVehiclesInOneTransactionAndReportIgnoredRows() throws SQLException {
+        // Given
+        Vehicle first = new Vehicle("v1", "own123", "Toyota", "Corolla", validVin, "Red");
+        Vehicle second = new Vehicle("v2", "own123", "Honda", "Civic", "76543210987654321", "Blue");
+        when(mockPreparedStatement.executeBatch()).thenReturn(new int[]{1, 0});
+
+        // When
+        Set<String> inserted = vehicleDao.saveAllIfAbsent(List.of(first, second));
+
+        // Then
+        assertEquals(Set.of("v1"), inserted);
+        verify(mockConnection).prepareStatement(startsWith("INSERT OR IGNORE INTO vehicles"));
+        verify(mockPreparedStatement, times(2)).addBatch();
+        verify(mockPreparedStatement, times(1)).executeBatch();
+        verify(mockConnection).setAutoCommit(false);
+        verify(mockConnection).commit();
+    }
+
+    @Test
+    void saveAllIfAbsentShouldRollbackOnException() throws SQLException {
+        // Given
+        Vehicle vehicle = new Vehicle("v1", "own123", "Toyota", "Corolla", validVin, "Red");
+        when(mockPreparedStatement.executeBatch()).thenThrow(new SQLException("disk full"));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> vehicleDao.saveAllIfAbsent(List.of(vehicle)));
+        verify(mockConnection).rollback();
+        verify(mockConnection).setAutoCommit(true);
+    }
 }
@@ -4,16 +4,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import pl.sobczak.grzegorz.dao.Page;
+import pl.sobczak.grzegorz.dao.PageRequest;
+import pl.sobczak.grzegorz.dao.SortDirection;
 import pl.sobczak.grzegorz.dao.UserDao;
 import pl.sobczak.grzegorz.dao.VehicleDao;
 import pl.sobczak.grzegorz.model.User;
 import pl.sobczak.grzegorz.model.Vehicle;
+import pl.sobczak.grzegorz.service.VehicleRegistration;
+import pl.sobczak.grzegorz.service.VehicleRegistrationReport;
 import pl.sobczak.grzegorz.service.VehicleService;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 public class VehicleServiceTest {
@@ -67,6 +76,25 @@ public class VehicleServiceTest {
         verify(vehicleDao).findByOwnerId(ownerId);
     }
 
+    @Test
+    void shouldReturnPageOfVehiclesForOwner() {
+        // Given
+        String ownerId = "own123";
+        PageRequest pageRequest = PageRequest.first(10, SortDirection.ASC);
+        Page<Vehicle> page = new Page<>(List.of(
+                new Vehicle(ownerId, "Ford", "Focus", "12345678901234567", "Blue")
+        ), null);
+        when(vehicleDao.findByOwnerId(ownerId, pageRequest)).thenReturn(page);
+
+        // When
+        Page<Vehicle> result = vehicleService.getVehiclesByOwner(ownerId, pageRequest);
+
+        // Then
+        assertEquals(1, result.items().size());
+        assertFalse(result.hasNext());
+        verify(vehicleDao).findByOwnerId(ownerId, pageRequest);
+    }
+
     @Test
     void shouldChangeColorSuccessfully() {
         // Given
@@ -125,4 +153,58 @@ public class VehicleServiceTest {
                 vehicleService.changeVehicleColor("invalid", "Red")
         );
     }
+
+    @Test
+    void shouldRegisterVehiclesInBulkAndReportEveryRow() {
+        // Given
+        String otherVin = "76543210987654321";
+        String takenVin = "11111111111111111";
+        List<VehicleRegistration> rows = List.of(
+                new VehicleRegistration("own1", "Toyota", "Corolla", validVin, "Red"),
+                new VehicleRegistration("own1", "Honda", "Civic", validVin, "Blue"),
+                new VehicleRegistration("missing", "Ford", "Focus", otherVin, "Grey"),
+                new VehicleRegistration("own1", "Mazda", "6", takenVin, "Black"),
+                new VehicleRegistration("own1", "Kia", "Ceed", "SHORT", "White")
+        );
+        when(userDao.findExistingIds(anyCollection())).thenReturn(Set.of("own1"));
+        when(vehicleDao.findExistingVins(anyCollection())).thenReturn(Set.of(takenVin));
+        when(vehicleDao.saveAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            List<Vehicle> accepted = invocation.getArgument(0);
+            return Set.of(accepted.getFirst().getId());
+        });
+
+        // When
+        VehicleRegistrationReport report = vehicleService.registerVehicles(rows);
+
+        // Then
+        assertEquals(5, report.results().size());
+        assertEquals(1, report.registered().size());
+        assertEquals("Toyota", report.registered().getFirst().getBrand());
+        assertEquals("Duplicate VIN in this batch", report.results().get(1).error());
+        assertEquals("Cannot register vehicle: Owner not found", report.results().get(2).error());
+        assertEquals("Vehicle with this VIN already exists", report.results().get(3).error());
+        assertEquals("VIN must be exactly 17 characters", report.results().get(4).error());
+        verify(vehicleDao, never()).findByVin(anyString());
+        verify(vehicleDao, never()).save(any(Vehicle.class));
+    }
+
+    @Test
+    void shouldReportInsertFailureForAcceptedRowsInsteadOfThrowing() {
+        // Given
+        List<VehicleRegistration> rows = List.of(
+                new VehicleRegistration("own1", "Toyota", "Corolla", validVin, "Red"),
+                new VehicleRegistration("missing", "Ford", "Focus", "76543210987654321", "Grey")
+        );
+        when(userDao.findExistingIds(anyCollection())).thenReturn(Set.of("own1"));
+        when(vehicleDao.findExistingVins(anyCollection())).thenReturn(Set.of());
+        when(vehicleDao.saveAllIfAbsent(anyList())).thenThrow(new RuntimeException("Error saving vehicles in bulk"));
+
+        // When
+        VehicleRegistrationReport report = vehicleService.registerVehicles(rows);
+
+        // Then
+        assertTrue(report.registered().isEmpty());
+        assertEquals("Error saving vehicles in bulk", report.results().get(0).error());
+        assertEquals("Cannot register vehicle: Owner not found", report.results().get(1).error());
+    }
 }
@@ -2,8 +2,13 @@ package Vehicle;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import pl.sobczak.grzegorz.model.IdGenerator;
 import pl.sobczak.grzegorz.model.Vehicle;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class VehicleTest {
@@ -26,6 +31,39 @@ public class VehicleTest {
         assertEquals("Red", vehicle.getColor());
     }
 
+    @Test
+    void shouldGenerateTimeOrderedIdsByDefault() {
+        // Given
+        List<String> ids = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(new Vehicle("owner-123", "Toyota", "Corolla", validVin, "Red").getId());
+        }
+
+        // Then
+        List<String> sorted = new ArrayList<>(ids);
+        sorted.sort(null);
+        assertEquals(sorted, ids);
+        assertEquals(ids.size(), ids.stream().distinct().count());
+        UUID uuid = UUID.fromString(ids.getFirst());
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void shouldUseInjectedIdGenerator() {
+        // Given
+        IdGenerator idGenerator = () -> "vehicle-1";
+
+        // When
+        Vehicle created = new Vehicle(idGenerator, "owner-123", "Toyota", "Corolla", validVin, "Red");
+
+        // Then
+        assertEquals("vehicle-1", created.getId());
+        assertEquals(4, UUID.fromString(IdGenerator.random().nextId()).version());
+    }
+
     @Test
     void shouldThrowExceptionForInvalidVin() {
         assertThrows(IllegalArgumentException.class, () ->
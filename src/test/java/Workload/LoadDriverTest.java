@@ -0,0 +1,109 @@
+package Workload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.sobczak.grzegorz.db.ConnectionPool;
+import pl.sobczak.grzegorz.db.PoolConfig;
+import pl.sobczak.grzegorz.db.SchemaMigrator;
+import pl.sobczak.grzegorz.db.StorageProfile;
+import pl.sobczak.grzegorz.workload.LoadDriver;
+import pl.sobczak.grzegorz.workload.SkewedDistribution;
+import pl.sobczak.grzegorz.workload.WorkloadMix;
+import pl.sobczak.grzegorz.workload.WorkloadOperation;
+import pl.sobczak.grzegorz.workload.WorkloadOptions;
+import pl.sobczak.grzegorz.workload.WorkloadReport;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadDriverTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldParseMixAndPickOnlyWeightedOperations() {
+        // Given
+        WorkloadMix mix = WorkloadMix.parse("history=3, add-parts=1, costs=0");
+        SplittableRandom random = new SplittableRandom(7);
+
+        // When
+        Set<WorkloadOperation> picked = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            picked.add(mix.next(random));
+        }
+
+        // Then
+        assertEquals(Set.of(WorkloadOperation.VEHICLE_HISTORY, WorkloadOperation.ADD_PARTS), picked);
+        assertEquals("add-parts=1,history=3", mix.toString());
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("history=0"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("refuel=1"));
+    }
+
+    @Test
+    void shouldSkewSamplesTowardsLowerBound() {
+        // Given
+        SkewedDistribution parts = SkewedDistribution.parse("1-8:3");
+        SplittableRandom random = new SplittableRandom(11);
+
+        // When
+        int[] histogram = new int[9];
+        for (int i = 0; i < 10_000; i++) {
+            histogram[parts.sample(random)]++;
+        }
+
+        // Then
+        assertEquals(0, histogram[0]);
+        assertTrue(histogram[1] > histogram[4]);
+        assertTrue(histogram[4] > histogram[8]);
+        assertTrue(histogram[8] > 0);
+        assertThrows(IllegalArgumentException.class, () -> SkewedDistribution.parse("5-1"));
+    }
+
+    @Test
+    void shouldDriveEveryOperationAgainstRealDatabase() throws SQLException {
+        // Given
+        String url = "jdbc:sqlite:" + dir.resolve("load.db");
+        ConnectionPool pool = ConnectionPool.start(() -> {
+            Connection conn = DriverManager.getConnection(url);
+            StorageProfile.BALANCED.apply(conn);
+            return conn;
+        }, new PoolConfig(2, 0, Duration.ofSeconds(5), Duration.ZERO, "SELECT 1", 16));
+        try (Connection conn = pool.borrow()) {
+            new SchemaMigrator().migrate(conn);
+        }
+        WorkloadOptions options = WorkloadOptions.defaults()
+                .withThreads(2)
+                .withWarmup(Duration.ZERO)
+                .withDuration(Duration.ofMillis(500))
+                .withSeedData(5, 10)
+                .withRandomSeed(42);
+
+        // When
+        WorkloadReport report = new LoadDriver(pool::borrow, options).run();
+
+        // Then
+        assertEquals(0, report.totalErrors(), report.toString());
+        assertTrue(report.result(WorkloadOperation.OPEN_ORDER).count() > 0);
+        assertTrue(report.result(WorkloadOperation.ADVANCE_STATUS).count() > 0);
+        assertTrue(report.result(WorkloadOperation.VEHICLE_HISTORY).p99Nanos() > 0);
+
+        try (Connection conn = pool.borrow();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(DISTINCT status) FROM repair_orders")) {
+            assertTrue(rs.next());
+            assertTrue(rs.getInt(1) >= 3);
+        }
+        pool.close();
+    }
+}